@@ -0,0 +1,111 @@
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+
+// Decodes sprites close to their on-screen size with ImageIO source subsampling and keeps only a
+// pre-scaled copy in the screen's pixel format, instead of a full-resolution raster behind getScaledInstance.
+public class AssetLoader {
+    private final GraphicsConfiguration gc;
+
+    private int count;
+    private long fullBytes;
+    private long decodedBytes;
+    private long keptBytes;
+    private long nanos;
+
+    public AssetLoader() {
+        this(GraphicsEnvironment.isHeadless() ? null
+                : GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration());
+    }
+
+    public AssetLoader(GraphicsConfiguration gc) {
+        this.gc = gc;
+    }
+
+    public File find(String baseName) {
+        for (String ext : new String[]{".png", ".jpg", ".jpeg"}) {
+            File f = new File(baseName + ext);
+            if (f.exists()) return f;
+        }
+        return null;
+    }
+
+    public BufferedImage load(String baseName, int w, int h) {
+        File f = find(baseName);
+        if (f == null) return createImage(w, h);
+        try {
+            return scale(decode(f, w, h), w, h);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    // Subsamples to no less than twice the target so the final smooth downscale still has detail to work with.
+    public BufferedImage decode(File f, int w, int h) throws IOException {
+        long t0 = System.nanoTime();
+        try (ImageInputStream in = ImageIO.createImageInputStream(f)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) throw new IOException("Format gambar tidak dikenal: " + f);
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int srcW = reader.getWidth(0), srcH = reader.getHeight(0);
+                int step = Math.max(1, Math.min(srcW / (2 * w), srcH / (2 * h)));
+
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                BufferedImage image = reader.read(0, param);
+
+                count++;
+                fullBytes += 4L * srcW * srcH;
+                decodedBytes += 4L * image.getWidth() * image.getHeight();
+                return image;
+            } finally {
+                reader.dispose();
+                nanos += System.nanoTime() - t0;
+            }
+        }
+    }
+
+    public BufferedImage scale(BufferedImage src, int w, int h) {
+        long t0 = System.nanoTime();
+        BufferedImage current = src;
+        int cw = src.getWidth(), ch = src.getHeight();
+        // halve with bilinear filtering until within 2x; a single bilinear pass from further away aliases
+        while (cw / 2 >= w && ch / 2 >= h) {
+            cw /= 2;
+            ch /= 2;
+            current = draw(current, cw, ch, new BufferedImage(cw, ch, BufferedImage.TYPE_INT_ARGB));
+        }
+        BufferedImage result = draw(current, w, h, createImage(w, h));
+        keptBytes += 4L * w * h;
+        nanos += System.nanoTime() - t0;
+        return result;
+    }
+
+    private BufferedImage draw(BufferedImage src, int w, int h, BufferedImage dst) {
+        Graphics2D g = dst.createGraphics();
+        g.setComposite(AlphaComposite.Src);
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        g.drawImage(src, 0, 0, w, h, null);
+        g.dispose();
+        return dst;
+    }
+
+    private BufferedImage createImage(int w, int h) {
+        if (gc != null) return gc.createCompatibleImage(w, h, Transparency.TRANSLUCENT);
+        return new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+    }
+
+    public String getReport() {
+        return String.format("Aset: %d gambar dalam %d ms, dekode %.1f MB (tanpa subsampling %.1f MB), disimpan %.2f MB",
+                count, nanos / 1_000_000, decodedBytes / 1048576.0, fullBytes / 1048576.0, keptBytes / 1048576.0);
+    }
+}
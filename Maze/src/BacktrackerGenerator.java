@@ -0,0 +1,29 @@
+import java.util.Random;
+
+public class BacktrackerGenerator implements MazeGenerator {
+
+    @Override
+    public String getName() { return "Backtracker"; }
+
+    @Override
+    public void carve(MazeGrid grid, Random rand) {
+        int[] stack = new int[MazeBuilder.roomCount(grid)];
+        int top = 0;
+        int[] neighbors = new int[4];
+
+        grid.cells[grid.start] = MazeGrid.GRASS;
+        stack[top++] = grid.start;
+
+        while (top > 0) {
+            int current = stack[top - 1];
+            int n = MazeBuilder.roomNeighbors(grid, current, neighbors, false);
+            if (n == 0) {
+                top--;
+                continue;
+            }
+            int next = neighbors[rand.nextInt(n)];
+            MazeBuilder.connect(grid, current, next);
+            stack[top++] = next;
+        }
+    }
+}
@@ -0,0 +1,204 @@
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Solves many (start, goal) pairs on one shared read-only grid. Each worker keeps its own GridSearch, whose
+// epoch-stamped scratch arrays are reused across queries, and results land in flat arrays. A grid too large to
+// unpack is searched through its MazeFile mapping with MappedSearch instead; cells are long indices throughout.
+public class BatchSolver {
+    static final int BLOCK = 64;
+
+    private final MazeGrid grid;
+    private final MazeFile mapped;
+    private final long cols;
+    private final Solver solver;
+    private final int threads;
+
+    final long[] starts, goals;
+    final long[] cost, length, expanded;
+    private ComponentLabels components;
+    private int rejected;
+    private long nanos;
+
+    public BatchSolver(MazeGrid grid, Solver solver, int threads, long[] starts, long[] goals) {
+        this(grid, null, grid.cols, solver, threads, starts, goals);
+    }
+
+    // Only Dijkstra and A* have a mapped implementation.
+    public BatchSolver(MazeFile mapped, Solver solver, int threads, long[] starts, long[] goals) {
+        this(null, mapped, mapped.cols, solver, threads, starts, goals);
+        if (solver != Solver.DIJKSTRA && solver != Solver.ASTAR) {
+            throw new IllegalArgumentException(solver.label + " tidak tersedia untuk maze yang dipetakan; pakai Dijkstra atau A*");
+        }
+    }
+
+    private BatchSolver(MazeGrid grid, MazeFile mapped, long cols, Solver solver, int threads, long[] starts, long[] goals) {
+        if (starts.length != goals.length) throw new IllegalArgumentException("Jumlah start dan tujuan berbeda");
+        this.grid = grid;
+        this.mapped = mapped;
+        this.cols = cols;
+        this.solver = solver;
+        this.threads = Math.max(1, threads);
+        this.starts = starts;
+        this.goals = goals;
+        cost = new long[starts.length];
+        length = new long[starts.length];
+        expanded = new long[starts.length];
+    }
+
+    public int size() { return starts.length; }
+    public long getNanos() { return nanos; }
+    public int getRejected() { return rejected; }
+
+    // Workers claim BLOCK queries at a time, so a few long searches cannot leave the other cores idle.
+    public void solve() throws Exception {
+        long t0 = System.nanoTime();
+        if (grid != null && (components == null || !components.matches(grid))) components = new ComponentLabels(grid);
+        AtomicInteger next = new AtomicInteger();
+        int workers = Math.min(threads, (size() + BLOCK - 1) / BLOCK);
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, workers));
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int w = 0; w < workers; w++) {
+                futures.add(pool.submit(() -> {
+                    GridSearch search = new GridSearch();
+                    search.setRecordHistory(false);
+                    MappedSearch direct = mapped == null ? null : new MappedSearch(mapped, solver == Solver.ASTAR);
+                    for (int from; (from = next.getAndAdd(BLOCK)) < size(); ) {
+                        int to = Math.min(size(), from + BLOCK);
+                        for (int q = from; q < to; q++) {
+                            if (direct != null) solveMapped(direct, q);
+                            else solveOne(search, q);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) future.get();
+        } finally {
+            pool.shutdown();
+        }
+        rejected = 0;
+        for (int q = 0; q < size(); q++) if (rejects(q)) rejected++;
+        nanos = System.nanoTime() - t0;
+    }
+
+    // Walls and endpoints in different regions are answered from the labels without searching. A mapped grid
+    // has no labels, so only wall endpoints are turned away there.
+    private boolean rejects(int q) {
+        if (mapped != null) return !mapped.isOpen(starts[q]) || !mapped.isOpen(goals[q]);
+        return !components.connected((int) starts[q], (int) goals[q]);
+    }
+
+    private void solveOne(GridSearch search, int q) {
+        if (rejects(q)) {
+            cost[q] = -1;
+            length[q] = 0;
+            expanded[q] = 0;
+            return;
+        }
+        boolean found = solver.run(search, grid, (int) starts[q], (int) goals[q]);
+        cost[q] = found ? search.pathCost() : -1;
+        length[q] = search.pathLength();
+        expanded[q] = search.getExpanded();
+    }
+
+    private void solveMapped(MappedSearch search, int q) {
+        boolean found = search.search(starts[q], goals[q]);
+        cost[q] = found ? search.pathCost() : -1;
+        length[q] = search.pathLength();
+        expanded[q] = search.getExpanded();
+    }
+
+    public int solvedCount() {
+        int n = 0;
+        for (long c : cost) if (c >= 0) n++;
+        return n;
+    }
+
+    // One query per line: "startRow startCol goalRow goalCol", separated by spaces or commas; '#' starts a comment.
+    public static long[][] readQueries(File file, int rows, int cols) throws IOException {
+        long[] starts = new long[1024], goals = new long[1024];
+        int n = 0, lineNo = 0;
+        try (BufferedReader in = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            for (String line; (line = in.readLine()) != null; ) {
+                lineNo++;
+                int hash = line.indexOf('#');
+                if (hash >= 0) line = line.substring(0, hash);
+                line = line.trim();
+                if (line.isEmpty()) continue;
+                String[] parts = line.split("[\\s,]+");
+                if (parts.length != 4) throw new IOException("Baris " + lineNo + ": butuh 4 angka, dapat " + parts.length);
+                int[] v = new int[4];
+                try {
+                    for (int k = 0; k < 4; k++) v[k] = Integer.parseInt(parts[k]);
+                } catch (NumberFormatException e) {
+                    throw new IOException("Baris " + lineNo + ": bukan angka");
+                }
+                for (int k = 0; k < 4; k++) {
+                    if (v[k] < 0 || v[k] >= (k % 2 == 0 ? rows : cols)) {
+                        throw new IOException("Baris " + lineNo + ": sel di luar maze " + rows + " x " + cols);
+                    }
+                }
+                if (n == starts.length) {
+                    starts = Arrays.copyOf(starts, n * 2);
+                    goals = Arrays.copyOf(goals, n * 2);
+                }
+                starts[n] = (long) v[0] * cols + v[1];
+                goals[n++] = (long) v[2] * cols + v[3];
+            }
+        }
+        return new long[][]{Arrays.copyOf(starts, n), Arrays.copyOf(goals, n)};
+    }
+
+    public void writeCsv(PrintWriter out) {
+        out.println("start_row,start_col,goal_row,goal_col,cost,length,expansions");
+        for (int q = 0; q < size(); q++) {
+            out.println(starts[q] / cols + "," + starts[q] % cols + "," + goals[q] / cols + "," + goals[q] % cols
+                    + "," + cost[q] + "," + length[q] + "," + expanded[q]);
+        }
+    }
+
+    static Solver parseSolver(String name) {
+        for (Solver solver : Solver.values()) {
+            if (solver.name().equalsIgnoreCase(name) || solver.label.equalsIgnoreCase(name)) return solver;
+        }
+        throw new IllegalArgumentException("Algoritma tidak dikenal: " + name);
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Pemakaian: java BatchSolver FILE_MAZE FILE_QUERY [[mmap:]ALGORITMA] [THREAD] [FILE_CSV]");
+            return;
+        }
+        MazeFile file = MazeFile.map(new File(args[0]));
+        long[][] queries = readQueries(new File(args[1]), file.rows, file.cols);
+        String name = args.length > 2 ? args[2] : Solver.ASTAR.name();
+        // mmap: searches the mapping even when the grid would fit in memory; larger grids always do
+        boolean direct = name.regionMatches(true, 0, "mmap:", 0, 5);
+        if (direct) name = name.substring(5);
+        Solver solver = parseSolver(name);
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+
+        BatchSolver batch = direct || !file.fitsInMemory()
+                ? new BatchSolver(file, solver, threads, queries[0], queries[1])
+                : new BatchSolver(file.toGrid(), solver, threads, queries[0], queries[1]);
+        batch.solve();
+        try (PrintWriter out = args.length > 4
+                ? new PrintWriter(Files.newBufferedWriter(new File(args[4]).toPath(), StandardCharsets.UTF_8))
+                : new PrintWriter(System.out)) {
+            batch.writeCsv(out);
+        }
+        System.err.printf("%s%s: %,d query (%,d ada rute, %,d ditolak tanpa pencarian) dengan %d thread dalam %.1f ms%n",
+                solver.label, batch.mapped != null ? " (dipetakan)" : "", batch.size(), batch.solvedCount(), batch.getRejected(), threads, batch.getNanos() / 1e6);
+    }
+}
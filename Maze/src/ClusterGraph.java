@@ -0,0 +1,298 @@
+import java.util.Arrays;
+
+// HPA* abstraction: the grid is cut into CLUSTER x CLUSTER blocks, every open cell with an open neighbour in
+// another block becomes an abstract node, and node-to-node costs inside each block are precomputed once.
+// Using every border crossing (not one per entrance run) keeps the answer exactly optimal.
+public class ClusterGraph {
+    static final int CLUSTER = 16;
+    private static final int INF = GridSearch.INF;
+
+    final MazeGrid grid;
+    final int version;
+    private final int clusterCols;
+
+    private int[] nodeCell;
+    private int nodeCount;
+    private int[] clusterStart;
+    private int[] clusterNodes;
+    private int[] edgeStart;
+    private int[] edgeTarget;
+    private int[] edgeCost;
+    private int edgeCount;
+    private long buildNanos;
+
+    private final int[] localDist = new int[CLUSTER * CLUSTER];
+    private final int[] localParent = new int[CLUSTER * CLUSTER];
+    private final IndexedMinHeap localHeap = new IndexedMinHeap();
+    private int r0, c0, r1, c1;
+
+    private int[] dist = new int[0];
+    private int[] parent = new int[0];
+    private int[] goalCost = new int[0];
+    private final IndexedMinHeap heap = new IndexedMinHeap();
+    private int expanded;
+    private int peakQueue;
+    private int[] history = new int[64];
+    private int historySize;
+
+    public ClusterGraph(MazeGrid grid) {
+        long t0 = System.nanoTime();
+        this.grid = grid;
+        this.version = grid.version;
+        this.clusterCols = (grid.cols + CLUSTER - 1) / CLUSTER;
+        localHeap.ensureCapacity(CLUSTER * CLUSTER);
+        findNodes();
+        groupByCluster();
+        buildEdges();
+        buildNanos = System.nanoTime() - t0;
+    }
+
+    public boolean matches(MazeGrid grid) {
+        return this.grid == grid && version == grid.version;
+    }
+
+    public long getBuildNanos() { return buildNanos; }
+    public int getNodeCount() { return nodeCount; }
+    public int getEdgeCount() { return edgeCount; }
+    public int getExpanded() { return expanded; }
+    public int getPeakQueue() { return peakQueue; }
+
+    // Cells of the abstract nodes popped by the last query, in order.
+    public int[] history() {
+        return Arrays.copyOf(history, historySize);
+    }
+
+    private void findNodes() {
+        int rows = grid.rows, cols = grid.cols;
+        nodeCell = new int[64];
+        nodeCount = 0;
+        for (int r = 0; r < rows; r++) {
+            GridSearch.checkInterrupted();
+            for (int c = 0; c < cols; c++) {
+                int i = r * cols + c;
+                if (!grid.isOpen(i)) continue;
+                boolean crossing = (c % CLUSTER == CLUSTER - 1 && c + 1 < cols && grid.isOpen(i + 1))
+                        || (c % CLUSTER == 0 && c > 0 && grid.isOpen(i - 1))
+                        || (r % CLUSTER == CLUSTER - 1 && r + 1 < rows && grid.isOpen(i + cols))
+                        || (r % CLUSTER == 0 && r > 0 && grid.isOpen(i - cols));
+                if (!crossing) continue;
+                if (nodeCount == nodeCell.length) nodeCell = Arrays.copyOf(nodeCell, nodeCount * 2);
+                nodeCell[nodeCount++] = i;
+            }
+        }
+    }
+
+    private int clusterOf(int cell) {
+        return (grid.row(cell) / CLUSTER) * clusterCols + grid.col(cell) / CLUSTER;
+    }
+
+    // nodeCell is filled in row-major order, so it stays sorted and doubles as the cell -> node index
+    private int nodeOf(int cell) {
+        int k = Arrays.binarySearch(nodeCell, 0, nodeCount, cell);
+        return k >= 0 ? k : -1;
+    }
+
+    private void groupByCluster() {
+        int clusters = ((grid.rows + CLUSTER - 1) / CLUSTER) * clusterCols;
+        clusterStart = new int[clusters + 1];
+        for (int k = 0; k < nodeCount; k++) clusterStart[clusterOf(nodeCell[k]) + 1]++;
+        for (int k = 0; k < clusters; k++) clusterStart[k + 1] += clusterStart[k];
+        clusterNodes = new int[nodeCount];
+        int[] fill = Arrays.copyOf(clusterStart, clusters);
+        for (int k = 0; k < nodeCount; k++) clusterNodes[fill[clusterOf(nodeCell[k])]++] = k;
+    }
+
+    private void buildEdges() {
+        int[] to = new int[Math.max(16, nodeCount * 4)];
+        int[] cost = new int[to.length];
+        int cols = grid.cols;
+        edgeStart = new int[nodeCount + 1];
+
+        // edges are produced grouped by source node, so the CSR offsets are just the running count
+        for (int u = 0; u < nodeCount; u++) {
+            if ((u & 0xFF) == 0) GridSearch.checkInterrupted();
+            edgeStart[u] = edgeCount;
+            int cell = nodeCell[u];
+            int cluster = clusterOf(cell);
+            localSearch(cell, -1);
+            for (int k = clusterStart[cluster]; k < clusterStart[cluster + 1]; k++) {
+                int v = clusterNodes[k];
+                int d = localDistance(nodeCell[v]);
+                if (v == u || d == INF) continue;
+                if (edgeCount == to.length) {
+                    to = Arrays.copyOf(to, edgeCount * 2);
+                    cost = Arrays.copyOf(cost, edgeCount * 2);
+                }
+                to[edgeCount] = v;
+                cost[edgeCount++] = d;
+            }
+
+            int r = cell / cols, c = cell - r * cols;
+            int[] across = {
+                    c + 1 < cols ? cell + 1 : -1, c > 0 ? cell - 1 : -1,
+                    r + 1 < grid.rows ? cell + cols : -1, r > 0 ? cell - cols : -1};
+            for (int next : across) {
+                if (next < 0 || !grid.isOpen(next) || clusterOf(next) == cluster) continue;
+                if (edgeCount == to.length) {
+                    to = Arrays.copyOf(to, edgeCount * 2);
+                    cost = Arrays.copyOf(cost, edgeCount * 2);
+                }
+                to[edgeCount] = nodeOf(next);
+                cost[edgeCount++] = grid.type(next);
+            }
+        }
+
+        edgeStart[nodeCount] = edgeCount;
+        edgeTarget = Arrays.copyOf(to, edgeCount);
+        edgeCost = Arrays.copyOf(cost, edgeCount);
+    }
+
+    // Dijkstra confined to the cluster containing source; costs count the cells entered, not the source.
+    private void localSearch(int source, int stopAt) {
+        int cols = grid.cols;
+        int sr = grid.row(source), sc = grid.col(source);
+        r0 = sr - sr % CLUSTER;
+        c0 = sc - sc % CLUSTER;
+        r1 = Math.min(grid.rows, r0 + CLUSTER);
+        c1 = Math.min(cols, c0 + CLUSTER);
+        Arrays.fill(localDist, INF);
+
+        int s = localIndex(source);
+        localDist[s] = 0;
+        localParent[s] = -1;
+        localHeap.push(s, 0);
+        while (!localHeap.isEmpty()) {
+            int u = localHeap.pop();
+            expanded++;
+            int r = r0 + u / CLUSTER, c = c0 + u % CLUSTER;
+            if (r * cols + c == stopAt) break;
+            for (int k = 0; k < 4; k++) {
+                int nr = r + (k == 2 ? 1 : k == 3 ? -1 : 0);
+                int nc = c + (k == 0 ? 1 : k == 1 ? -1 : 0);
+                if (nr < r0 || nr >= r1 || nc < c0 || nc >= c1) continue;
+                int cell = nr * cols + nc;
+                if (!grid.isOpen(cell)) continue;
+                int v = (nr - r0) * CLUSTER + (nc - c0);
+                int d = localDist[u] + grid.type(cell);
+                if (d < localDist[v]) {
+                    localDist[v] = d;
+                    localParent[v] = u;
+                    localHeap.push(v, d);
+                }
+            }
+        }
+        localHeap.clear();
+    }
+
+    private int localDistance(int cell) {
+        int r = grid.row(cell), c = grid.col(cell);
+        if (r < r0 || r >= r1 || c < c0 || c >= c1) return INF;
+        return localDist[localIndex(cell)];
+    }
+
+    private int localIndex(int cell) {
+        return (grid.row(cell) - r0) * CLUSTER + (grid.col(cell) - c0);
+    }
+
+    private int localCell(int v) {
+        return (r0 + v / CLUSTER) * grid.cols + c0 + v % CLUSTER;
+    }
+
+    public int[] findPath(int s, int t) {
+        expanded = 0;
+        peakQueue = 0;
+        historySize = 0;
+        int source = nodeCount, goal = nodeCount + 1;
+        if (dist.length < nodeCount + 2) {
+            dist = new int[nodeCount + 2];
+            parent = new int[nodeCount + 2];
+            goalCost = new int[nodeCount];
+            Arrays.fill(goalCost, INF);
+            heap.ensureCapacity(nodeCount + 2);
+        }
+        Arrays.fill(dist, 0, nodeCount + 2, INF);
+
+        // d(v -> t) inside t's cluster, from one search out of t: reversing a walk swaps which end is paid for
+        int goalCluster = clusterOf(t);
+        localSearch(t, -1);
+        for (int k = clusterStart[goalCluster]; k < clusterStart[goalCluster + 1]; k++) {
+            int v = clusterNodes[k];
+            int d = localDistance(nodeCell[v]);
+            if (d != INF) goalCost[v] = d - grid.type(nodeCell[v]) + grid.type(t);
+        }
+
+        localSearch(s, -1);
+        dist[source] = 0;
+        parent[source] = -1;
+        int direct = localDistance(t);
+        if (direct != INF) relax(source, goal, direct, t);
+        int sourceCluster = clusterOf(s);
+        for (int k = clusterStart[sourceCluster]; k < clusterStart[sourceCluster + 1]; k++) {
+            int v = clusterNodes[k];
+            int d = localDistance(nodeCell[v]);
+            if (d != INF) relax(source, v, d, t);
+        }
+
+        while (!heap.isEmpty()) {
+            peakQueue = Math.max(peakQueue, heap.size());
+            int u = heap.pop();
+            expanded++;
+            if (historySize == history.length) history = Arrays.copyOf(history, historySize * 2);
+            history[historySize++] = u == source ? s : u == goal ? t : nodeCell[u];
+            if (u == goal) break;
+            if (goalCost[u] != INF) relax(u, goal, goalCost[u], t);
+            for (int e = edgeStart[u]; e < edgeStart[u + 1]; e++) relax(u, edgeTarget[e], edgeCost[e], t);
+        }
+        heap.clear();
+        for (int k = clusterStart[goalCluster]; k < clusterStart[goalCluster + 1]; k++) goalCost[clusterNodes[k]] = INF;
+
+        return dist[goal] == INF ? new int[0] : refine(s, t);
+    }
+
+    private void relax(int u, int v, int cost, int t) {
+        int d = dist[u] + cost;
+        if (d >= dist[v]) return;
+        dist[v] = d;
+        parent[v] = u;
+        int cell = v == nodeCount + 1 ? t : nodeCell[v];
+        int h = Math.abs(grid.row(cell) - grid.row(t)) + Math.abs(grid.col(cell) - grid.col(t));
+        heap.push(v, ((long) (d + h) << 32) | h);
+    }
+
+    private int[] refine(int s, int t) {
+        int source = nodeCount, goal = nodeCount + 1;
+        int hops = 0;
+        for (int v = goal; v != -1; v = parent[v]) hops++;
+        int[] waypoints = new int[hops];
+        for (int v = goal, k = hops - 1; v != -1; v = parent[v], k--) {
+            waypoints[k] = v == source ? s : v == goal ? t : nodeCell[v];
+        }
+
+        int[] path = new int[64];
+        int length = 0;
+        path[length++] = s;
+        int[] segment = new int[CLUSTER * CLUSTER];
+        for (int k = 1; k < hops; k++) {
+            int a = waypoints[k - 1], b = waypoints[k];
+            if (a == b) continue;
+            int n;
+            if (clusterOf(a) != clusterOf(b)) {
+                segment[0] = b;
+                n = 1;
+            } else {
+                localSearch(a, b);
+                n = 0;
+                for (int v = localIndex(b); localParent[v] != -1; v = localParent[v]) segment[n++] = localCell(v);
+                for (int i = 0, j = n - 1; i < j; i++, j--) {
+                    int tmp = segment[i];
+                    segment[i] = segment[j];
+                    segment[j] = tmp;
+                }
+            }
+            if (length + n > path.length) path = Arrays.copyOf(path, Math.max(path.length * 2, length + n));
+            System.arraycopy(segment, 0, path, length, n);
+            length += n;
+        }
+        return Arrays.copyOf(path, length);
+    }
+}
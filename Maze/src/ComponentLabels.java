@@ -0,0 +1,60 @@
+import java.util.Arrays;
+
+// One flood fill per grid version gives every open cell the id of its connected region, so a query whose
+// endpoints sit in different regions is known to have no route before any search starts.
+public class ComponentLabels {
+    final MazeGrid grid;
+    final int version;
+    private final int[] label;
+    private int[] size = new int[16];
+    private int count;
+    private final long buildNanos;
+
+    public ComponentLabels(MazeGrid grid) {
+        long t0 = System.nanoTime();
+        this.grid = grid;
+        this.version = grid.version;
+        int n = grid.size(), cols = grid.cols, rows = grid.rows;
+        label = new int[n];
+        Arrays.fill(label, -1);
+        int[] queue = new int[n];
+
+        for (int seed = 0; seed < n; seed++) {
+            if ((seed & 0xFFFF) == 0) GridSearch.checkInterrupted();
+            if (label[seed] >= 0 || !grid.isOpen(seed)) continue;
+            int id = count++;
+            label[seed] = id;
+            int head = 0, tail = 0;
+            queue[tail++] = seed;
+            while (head < tail) {
+                int u = queue[head++];
+                if ((head & 0xFFFF) == 0) GridSearch.checkInterrupted();
+                int r = u / cols, c = u - r * cols;
+                if (c + 1 < cols && label[u + 1] < 0 && grid.isOpen(u + 1)) { label[u + 1] = id; queue[tail++] = u + 1; }
+                if (c > 0 && label[u - 1] < 0 && grid.isOpen(u - 1)) { label[u - 1] = id; queue[tail++] = u - 1; }
+                if (r + 1 < rows && label[u + cols] < 0 && grid.isOpen(u + cols)) { label[u + cols] = id; queue[tail++] = u + cols; }
+                if (r > 0 && label[u - cols] < 0 && grid.isOpen(u - cols)) { label[u - cols] = id; queue[tail++] = u - cols; }
+            }
+            if (id == size.length) size = Arrays.copyOf(size, id * 2);
+            size[id] = tail;
+        }
+        buildNanos = System.nanoTime() - t0;
+    }
+
+    public boolean matches(MazeGrid grid) {
+        return this.grid == grid && version == grid.version;
+    }
+
+    public boolean connected(int a, int b) {
+        return label[a] >= 0 && label[a] == label[b];
+    }
+
+    public int label(int cell) { return label[cell]; }
+    public int count() { return count; }
+    public long getBuildNanos() { return buildNanos; }
+
+    // Number of open cells in the region containing cell, or 0 for a wall.
+    public int regionSize(int cell) {
+        return label[cell] < 0 ? 0 : size[label[cell]];
+    }
+}
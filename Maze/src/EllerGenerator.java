@@ -0,0 +1,138 @@
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+public class EllerGenerator implements MazeGenerator {
+
+    public interface RowSink {
+        void acceptRow(int r, byte[] row) throws IOException;
+    }
+
+    @Override
+    public String getName() { return "Eller (stream)"; }
+
+    @Override
+    public void carve(MazeGrid grid, Random rand) {
+        try {
+            stream(grid.rows, grid.cols, rand, false, (r, row) -> System.arraycopy(row, 0, grid.cells, r * grid.cols, grid.cols));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public void stream(int rows, int cols, Random rand, boolean decorate, RowSink sink) throws IOException {
+        int roomCols = (cols - 1) / 2;
+        int roomRows = (rows - 1) / 2;
+
+        int[] label = new int[roomCols];
+        int[] parent = new int[roomCols];
+        int[] last = new int[roomCols];
+        boolean[] goesDown = new boolean[roomCols];
+        boolean[] setHasDown = new boolean[roomCols];
+        boolean[] used = new boolean[roomCols];
+        byte[] roomRow = new byte[cols];
+        byte[] wallRow = new byte[cols];
+
+        for (int j = 0; j < roomCols; j++) label[j] = j;
+        sink.acceptRow(0, wallRow);
+
+        for (int i = 0; i < roomRows; i++) {
+            boolean lastRow = i == roomRows - 1;
+            Arrays.fill(roomRow, MazeGrid.WALL);
+            Arrays.fill(wallRow, MazeGrid.WALL);
+            for (int j = 0; j < roomCols; j++) parent[label[j]] = label[j];
+
+            for (int j = 0; j < roomCols; j++) {
+                roomRow[2 * j + 1] = MazeGrid.GRASS;
+                if (j + 1 < roomCols) {
+                    int a = find(parent, label[j]), b = find(parent, label[j + 1]);
+                    if (a != b && (lastRow || rand.nextBoolean())) {
+                        parent[b] = a;
+                        roomRow[2 * j + 2] = MazeGrid.GRASS;
+                    }
+                }
+            }
+
+            if (!lastRow) {
+                for (int j = 0; j < roomCols; j++) {
+                    label[j] = find(parent, label[j]);
+                    last[label[j]] = j;
+                    setHasDown[label[j]] = false;
+                }
+                for (int j = 0; j < roomCols; j++) {
+                    int set = label[j];
+                    goesDown[j] = rand.nextBoolean() || (last[set] == j && !setHasDown[set]);
+                    if (goesDown[j]) {
+                        setHasDown[set] = true;
+                        wallRow[2 * j + 1] = MazeGrid.GRASS;
+                    }
+                }
+
+                Arrays.fill(used, false);
+                for (int j = 0; j < roomCols; j++) if (goesDown[j]) used[label[j]] = true;
+                int free = 0;
+                for (int j = 0; j < roomCols; j++) {
+                    if (goesDown[j]) continue;
+                    while (used[free]) free++;
+                    label[j] = free;
+                    used[free] = true;
+                }
+            }
+
+            int r = 2 * i + 1;
+            if (decorate) decorateRow(rows, cols, r, roomRow, rand);
+            sink.acceptRow(r, roomRow);
+            if (!lastRow) {
+                if (decorate) decorateRow(rows, cols, r + 1, wallRow, rand);
+                sink.acceptRow(r + 1, wallRow);
+            }
+        }
+
+        Arrays.fill(wallRow, MazeGrid.WALL);
+        for (int r = 2 * roomRows; r < rows; r++) sink.acceptRow(r, wallRow);
+    }
+
+    private void decorateRow(int rows, int cols, int r, byte[] row, Random rand) {
+        for (int c = 1; c < cols - 1; c++) {
+            if (row[c] == MazeGrid.WALL && rand.nextInt(100) < 15) row[c] = MazeGrid.GRASS;
+        }
+        for (int c = 0; c < cols; c++) {
+            if (row[c] == MazeGrid.WALL) continue;
+            boolean endpoint = (r == 1 && c == 1) || (r == rows - 2 && c == cols - 2);
+            if (endpoint) {
+                row[c] = MazeGrid.GRASS;
+                continue;
+            }
+            int chance = rand.nextInt(100);
+            if (chance < 60) row[c] = MazeGrid.GRASS;
+            else if (chance < 85) row[c] = MazeGrid.WATER;
+            else row[c] = MazeGrid.MUD;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.println("Pemakaian: java EllerGenerator BARIS KOLOM FILE [SEED]");
+            return;
+        }
+        int rows = Math.max(5, Integer.parseInt(args[0]) | 1);
+        int cols = Math.max(5, Integer.parseInt(args[1]) | 1);
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : System.nanoTime();
+
+        long t0 = System.nanoTime();
+        try (MazeRowWriter writer = new MazeRowWriter(new File(args[2]), rows, cols,
+                MazeBuilder.generatorId(new EllerGenerator()), MazeBuilder.DECORATION_ROWS, seed)) {
+            new EllerGenerator().stream(rows, cols, new Random(seed), true, writer);
+        }
+        System.out.println(MazeBuilder.formatRate("Eller", (long) rows * cols, System.nanoTime() - t0));
+    }
+
+    private static int find(int[] parent, int x) {
+        while (parent[x] != x) {
+            parent[x] = parent[parent[x]];
+            x = parent[x];
+        }
+        return x;
+    }
+}
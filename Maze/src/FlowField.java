@@ -0,0 +1,58 @@
+import java.util.Arrays;
+
+// One reverse Dijkstra from the treasure: every reachable cell stores its remaining cost and the direction of
+// its next step, so a route from any start is read off by following arrows instead of searching.
+public class FlowField {
+    static final byte NONE = -1;
+    private static final int INF = GridSearch.INF;
+
+    final MazeGrid grid;
+    final int version;
+    final int goal;
+    private final int[] dist;
+    private final byte[] next;
+    private final long buildNanos;
+
+    public FlowField(MazeGrid grid) {
+        long t0 = System.nanoTime();
+        this.grid = grid;
+        this.version = grid.version;
+        this.goal = grid.end;
+        int n = grid.size();
+        dist = new int[n];
+        next = new byte[n];
+        Arrays.fill(dist, INF);
+        Arrays.fill(next, NONE);
+        Landmarks.dial(grid, goal, true, dist, next);
+        buildNanos = System.nanoTime() - t0;
+    }
+
+    public boolean matches(MazeGrid grid) {
+        return this.grid == grid && version == grid.version && goal == grid.end;
+    }
+
+    public long getBuildNanos() { return buildNanos; }
+
+    public int distance(int cell) { return dist[cell]; }
+    public boolean reaches(int cell) { return dist[cell] != INF; }
+
+    public int step(int cell) {
+        switch (next[cell]) {
+            case 0: return cell + 1;
+            case 1: return cell - 1;
+            case 2: return cell + grid.cols;
+            case 3: return cell - grid.cols;
+            default: return -1;
+        }
+    }
+
+    public int[] path(int start) {
+        if (dist[start] == INF) return new int[0];
+        int length = 1;
+        for (int cell = start; cell != goal; cell = step(cell)) length++;
+        int[] path = new int[length];
+        int cell = start;
+        for (int i = 0; i < length; i++, cell = step(cell)) path[i] = cell;
+        return path;
+    }
+}
@@ -0,0 +1,818 @@
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+
+public class GridSearch {
+    static final int INF = Integer.MAX_VALUE;
+    static final int BUCKETS = MazeGrid.MUD + 1;
+    static final int CHUNK = 4096;
+
+    public interface ExpansionSink {
+        void accept(int[] cells, int length);
+    }
+
+    private MazeGrid grid;
+
+    private int[] stamp = new int[0];
+    private int[] parent = new int[0];
+    private int[] dist = new int[0];
+    private int[] work = new int[0];
+    private final IndexedMinHeap heap = new IndexedMinHeap();
+    private int epoch = 0;
+
+    private int[] stampB = new int[0];
+    private int[] parentB = new int[0];
+    private int[] distB = new int[0];
+    private int[] workB = new int[0];
+    private final IndexedMinHeap heapB = new IndexedMinHeap();
+
+    private final int[] bucketHead = new int[BUCKETS];
+    private int[] bucketNext = new int[0];
+    private int[] bucketPrev = new int[0];
+
+    private byte[] jumpDir = new byte[0];
+
+    // bitboards for bitParallelBfs: bit (c & 63) of word r * bitWords + (c >>> 6) is cell (r, c)
+    private MazeGrid bitGrid;
+    private int bitVersion;
+    private int bitWords;
+    private long[] openBits = new long[0];
+    private long[] visitedBits = new long[0];
+    private long[] frontierBits = new long[0];
+    private long[] spreadBits = new long[0];
+    private int[] activeWords = new int[0];
+    private int[] touchedWords = new int[0];
+    private int[] layerStart = new int[64];
+    private int[] layerWord = new int[64];
+    private long[] layerBits = new long[64];
+    private boolean bitsDirty;
+
+    // created on first use, on the common pool so GridSearch instances share its threads
+    private ParallelBfs parallelBfs;
+    private DeltaStepping deltaStepping;
+    private volatile ParallelSearch parallelRunning;
+
+    private final int[] nbr = new int[4];
+
+    private int[] history = new int[64];
+    private int historySize;
+    private boolean recordHistory = true;
+
+    private ExpansionSink sink;
+    private final int[] chunk = new int[CHUNK];
+    private int chunkSize;
+    private volatile boolean cancelled;
+
+    private int expanded;
+    private int peakQueue;
+    private boolean found;
+    private int target;
+    private int meet;
+    private int meetB;
+    private boolean bidirectional;
+
+    public void setRecordHistory(boolean recordHistory) { this.recordHistory = recordHistory; }
+    public void setExpansionSink(ExpansionSink sink) { this.sink = sink; }
+
+    // Safe to call from any thread; the running search throws CancellationException at its next chunk boundary.
+    public void cancel() {
+        cancelled = true;
+        ParallelSearch running = parallelRunning;
+        if (running != null) running.cancel();
+    }
+    public void clearCancel() { cancelled = false; }
+
+    // Cancel also interrupts the thread running a search or a cached build, so interruption counts as a cancel.
+    private boolean stopRequested() {
+        return cancelled || Thread.currentThread().isInterrupted();
+    }
+
+    // Polled by the long index builds (clusters, junctions, landmarks, component labels) between units of work.
+    static void checkInterrupted() {
+        if (Thread.currentThread().isInterrupted()) throw new CancellationException();
+    }
+
+    public int getExpanded() { return expanded; }
+    public int getPeakQueue() { return peakQueue; }
+    public boolean isFound() { return found; }
+
+    public boolean bfs(MazeGrid g, int s, int t) {
+        begin(g, t);
+        int head = 0, tail = 0;
+        work[tail++] = s;
+        stamp[s] = epoch;
+        parent[s] = -1;
+
+        while (head < tail) {
+            track(tail - head);
+            int current = work[head++];
+            expand(current);
+            if (current == t) { found = true; break; }
+            int n = neighbors(current);
+            for (int k = 0; k < n; k++) {
+                int next = nbr[k];
+                if (stamp[next] != epoch) {
+                    stamp[next] = epoch;
+                    parent[next] = current;
+                    work[tail++] = next;
+                }
+            }
+        }
+        return found;
+    }
+
+    public boolean dfs(MazeGrid g, int s, int t) {
+        begin(g, t);
+        int top = 0;
+        work[top++] = s;
+        stamp[s] = epoch;
+        parent[s] = -1;
+
+        while (top > 0) {
+            track(top);
+            int current = work[--top];
+            expand(current);
+            if (current == t) { found = true; break; }
+            int n = neighbors(current);
+            for (int k = 0; k < n; k++) {
+                int next = nbr[k];
+                if (stamp[next] != epoch) {
+                    stamp[next] = epoch;
+                    parent[next] = current;
+                    work[top++] = next;
+                }
+            }
+        }
+        return found;
+    }
+
+    public boolean dijkstra(MazeGrid g, int s, int t) {
+        return bestFirst(g, s, t, false, null);
+    }
+
+    public boolean aStar(MazeGrid g, int s, int t) {
+        return bestFirst(g, s, t, true, null);
+    }
+
+    public boolean aStarLandmarks(MazeGrid g, int s, int t, Landmarks landmarks) {
+        return bestFirst(g, s, t, true, landmarks);
+    }
+
+    private boolean bestFirst(MazeGrid g, int s, int t, boolean useHeuristic, Landmarks landmarks) {
+        begin(g, t);
+        int closed = epoch + 1;
+        byte[] cells = g.cells;
+        stamp[s] = epoch;
+        dist[s] = 0;
+        parent[s] = -1;
+        heap.clear();
+        heap.push(s, useHeuristic ? aStarKey(0, estimate(s, t, landmarks)) : 0);
+
+        while (!heap.isEmpty()) {
+            track(heap.size());
+            int current = heap.pop();
+            stamp[current] = closed;
+            expand(current);
+            if (current == t) { found = true; break; }
+            int base = dist[current];
+            int n = neighbors(current);
+            for (int k = 0; k < n; k++) {
+                int next = nbr[k];
+                if (stamp[next] == closed) continue;
+                int newDist = base + cells[next];
+                if (stamp[next] != epoch || newDist < dist[next]) {
+                    stamp[next] = epoch;
+                    dist[next] = newDist;
+                    parent[next] = current;
+                    heap.push(next, useHeuristic ? aStarKey(newDist, estimate(next, t, landmarks)) : newDist);
+                }
+            }
+        }
+        return found;
+    }
+
+    public boolean bidirectionalBfs(MazeGrid g, int s, int t) {
+        begin(g, t);
+        beginBackward();
+        stamp[s] = epoch; parent[s] = -1; dist[s] = 0;
+        stampB[t] = epoch; parentB[t] = -1; distB[t] = 0;
+        if (s == t) return meetAt(s, -1);
+
+        int fHead = 0, fTail = 0, bHead = 0, bTail = 0;
+        work[fTail++] = s;
+        workB[bTail++] = t;
+        int best = INF, bestF = -1, bestB = -1;
+
+        while (fHead < fTail && bHead < bTail && best == INF) {
+            track(fTail - fHead + bTail - bHead);
+            if (fTail - fHead <= bTail - bHead) {
+                int levelEnd = fTail;
+                while (fHead < levelEnd) {
+                    int current = work[fHead++];
+                    expand(current);
+                    int n = neighbors(current);
+                    for (int k = 0; k < n; k++) {
+                        int next = nbr[k];
+                        if (stampB[next] == epoch && dist[current] + 1 + distB[next] < best) {
+                            best = dist[current] + 1 + distB[next];
+                            bestF = current;
+                            bestB = next;
+                        }
+                        if (stamp[next] != epoch) {
+                            stamp[next] = epoch;
+                            dist[next] = dist[current] + 1;
+                            parent[next] = current;
+                            work[fTail++] = next;
+                        }
+                    }
+                }
+            } else {
+                int levelEnd = bTail;
+                while (bHead < levelEnd) {
+                    int current = workB[bHead++];
+                    expand(current);
+                    int n = neighbors(current);
+                    for (int k = 0; k < n; k++) {
+                        int next = nbr[k];
+                        if (stamp[next] == epoch && dist[next] + 1 + distB[current] < best) {
+                            best = dist[next] + 1 + distB[current];
+                            bestF = next;
+                            bestB = current;
+                        }
+                        if (stampB[next] != epoch) {
+                            stampB[next] = epoch;
+                            distB[next] = distB[current] + 1;
+                            parentB[next] = current;
+                            workB[bTail++] = next;
+                        }
+                    }
+                }
+            }
+        }
+        if (best == INF) return false;
+        return meetAt(bestF, bestB);
+    }
+
+    // Both sides use the averaged potential (h(v,t) - h(s,v)) / 2, doubled to stay integral,
+    // so they search the same reduced graph and can stop once their top keys sum to 2 * best.
+    public boolean bidirectionalAStar(MazeGrid g, int s, int t) {
+        begin(g, t);
+        beginBackward();
+        int closed = epoch + 1;
+        byte[] cells = g.cells;
+        stamp[s] = epoch; parent[s] = -1; dist[s] = 0;
+        stampB[t] = epoch; parentB[t] = -1; distB[t] = 0;
+        if (s == t) return meetAt(s, -1);
+
+        heap.clear();
+        heapB.clear();
+        heap.push(s, 0);
+        heapB.push(t, 0);
+        int best = INF, bestMeet = -1;
+
+        while (true) {
+            if (heap.isEmpty() || heapB.isEmpty()) break;
+            if (best != INF && heap.peekKey() + heapB.peekKey() >= 2L * best) break;
+            track(heap.size() + heapB.size());
+
+            if (heap.size() <= heapB.size()) {
+                int current = heap.pop();
+                stamp[current] = closed;
+                expand(current);
+                int n = neighbors(current);
+                for (int k = 0; k < n; k++) {
+                    int next = nbr[k];
+                    if (stamp[next] == closed) continue;
+                    int newDist = dist[current] + cells[next];
+                    if (stamp[next] != epoch || newDist < dist[next]) {
+                        stamp[next] = epoch;
+                        dist[next] = newDist;
+                        parent[next] = current;
+                        heap.push(next, 2L * newDist + heuristic(next, t) - heuristic(s, next));
+                    }
+                    if (stampB[next] >= epoch && dist[next] + distB[next] < best) {
+                        best = dist[next] + distB[next];
+                        bestMeet = next;
+                    }
+                }
+            } else {
+                int current = heapB.pop();
+                stampB[current] = closed;
+                expand(current);
+                int n = neighbors(current);
+                for (int k = 0; k < n; k++) {
+                    int next = nbr[k];
+                    if (stampB[next] == closed) continue;
+                    int newDist = distB[current] + cells[current];
+                    if (stampB[next] != epoch || newDist < distB[next]) {
+                        stampB[next] = epoch;
+                        distB[next] = newDist;
+                        parentB[next] = current;
+                        heapB.push(next, 2L * newDist + heuristic(s, next) - heuristic(next, t));
+                    }
+                    if (stamp[next] >= epoch && dist[next] + distB[next] < best) {
+                        best = dist[next] + distB[next];
+                        bestMeet = next;
+                    }
+                }
+            }
+        }
+        return best != INF && meetAt(bestMeet, parentB[bestMeet]);
+    }
+
+    private boolean meetAt(int forwardEnd, int backwardStart) {
+        bidirectional = true;
+        meet = forwardEnd;
+        meetB = backwardStart;
+        found = true;
+        return true;
+    }
+
+    // Jump Point Search for the 4-connected grid: vertical moves come before horizontal ones, and
+    // a jump stops at the goal, at forced neighbours (a side cell whose counterpart one step back is
+    // a wall or another terrain) and at any cell bordering a different terrain cost. Such cells are
+    // expanded in all four directions, so weighted areas fall back to ordinary A* expansion. A vertical
+    // jump probes each row for a horizontal jump point only PROBE cells out and stops when a probe runs
+    // that far, so one vertical step costs O(PROBE) rather than a scan of the whole row.
+    public boolean jumpPointSearch(MazeGrid g, int s, int t) {
+        begin(g, t);
+        if (jumpDir.length < g.size()) jumpDir = new byte[g.size()];
+        int closed = epoch + 1;
+        int cols = g.cols;
+        byte[] cells = g.cells;
+        stamp[s] = epoch;
+        dist[s] = 0;
+        parent[s] = -1;
+        jumpDir[s] = -1;
+        heap.clear();
+        heap.push(s, aStarKey(0, heuristic(s, t)));
+
+        while (!heap.isEmpty()) {
+            track(heap.size());
+            int current = heap.pop();
+            stamp[current] = closed;
+            expand(current);
+            if (current == t) { found = true; break; }
+
+            int dir = jumpDir[current];
+            if (current == s || !uniform(current)) dir = -1;
+            for (int d = 0; d < 4; d++) {
+                if (!jumpAllowed(current, dir, d)) continue;
+                int next = d < 2 ? jumpHorizontal(current, d == 0 ? 1 : -1) : jumpVertical(current, d == 2 ? 1 : -1);
+                if (next < 0 || stamp[next] == closed) continue;
+                int first = current + DIR_STEP[d] * (d < 2 ? 1 : cols);
+                int steps = Math.abs(g.row(next) - g.row(current)) + Math.abs(g.col(next) - g.col(current));
+                int newDist = dist[current] + steps * cells[first];
+                if (stamp[next] != epoch || newDist < dist[next]) {
+                    stamp[next] = epoch;
+                    dist[next] = newDist;
+                    parent[next] = current;
+                    jumpDir[next] = (byte) d;
+                    heap.push(next, aStarKey(newDist, heuristic(next, t)));
+                } else if (newDist == dist[next] && jumpDir[next] != d) {
+                    jumpDir[next] = -1;
+                }
+            }
+        }
+        if (found) fillJumpSegments();
+        return found;
+    }
+
+    private static final int[] DIR_STEP = {1, -1, 1, -1};
+    static final int PROBE = 16;
+
+    private boolean jumpAllowed(int cell, int arrived, int d) {
+        if (arrived < 0 || arrived == d) return true;
+        if ((arrived ^ d) == 1) return false;
+        if (arrived >= 2) return true;
+        return forced(cell, cell - DIR_STEP[arrived], 0, d == 2 ? 1 : -1);
+    }
+
+    private int jumpHorizontal(int from, int dx) {
+        return jumpHorizontal(from, dx, Integer.MAX_VALUE);
+    }
+
+    // Stopping a vertical jump early only adds a jump point, so a probe that runs out of steps counts as a hit.
+    private int jumpHorizontal(int from, int dx, int limit) {
+        int cols = grid.cols;
+        int r = from / cols;
+        int i = from;
+        for (int steps = 0; ; steps++) {
+            if (steps == limit) return i;
+            int c = i - r * cols + dx;
+            if (c < 0 || c >= cols) return -1;
+            i += dx;
+            if (grid.cells[i] == MazeGrid.WALL) return -1;
+            if (i == target || !uniform(i)) return i;
+            if (forced(i, i - dx, 0, -1) || forced(i, i - dx, 0, 1)) return i;
+        }
+    }
+
+    private int jumpVertical(int from, int dy) {
+        int cols = grid.cols;
+        int i = from;
+        while (true) {
+            int r = i / cols + dy;
+            if (r < 0 || r >= grid.rows) return -1;
+            i += dy * cols;
+            if (grid.cells[i] == MazeGrid.WALL) return -1;
+            if (i == target || !uniform(i)) return i;
+            if (forced(i, i - dy * cols, -1, 0) || forced(i, i - dy * cols, 1, 0)) return i;
+            if (jumpHorizontal(i, 1, PROBE) >= 0 || jumpHorizontal(i, -1, PROBE) >= 0) return i;
+        }
+    }
+
+    private boolean forced(int cell, int behind, int dc, int dr) {
+        int side = offsetCell(cell, dc, dr);
+        if (side < 0 || grid.cells[side] == MazeGrid.WALL) return false;
+        int behindSide = offsetCell(behind, dc, dr);
+        return behindSide < 0 || grid.cells[behindSide] != grid.cells[side];
+    }
+
+    private int offsetCell(int i, int dc, int dr) {
+        int cols = grid.cols;
+        int r = i / cols + dr, c = i % cols + dc;
+        return r >= 0 && r < grid.rows && c >= 0 && c < cols ? r * cols + c : -1;
+    }
+
+    private boolean uniform(int i) {
+        byte type = grid.cells[i];
+        int n = neighbors(i);
+        for (int k = 0; k < n; k++) {
+            if (grid.cells[nbr[k]] != type) return false;
+        }
+        return true;
+    }
+
+    private void fillJumpSegments() {
+        int cols = grid.cols;
+        int curr = target;
+        while (parent[curr] != -1) {
+            int jumpFrom = parent[curr];
+            int step = curr / cols == jumpFrom / cols ? Integer.signum(curr - jumpFrom) : Integer.signum(curr - jumpFrom) * cols;
+            for (int cell = curr; cell != jumpFrom; cell -= step) parent[cell] = cell - step;
+            curr = jumpFrom;
+        }
+    }
+
+    public boolean dial(MazeGrid g, int s, int t) {
+        begin(g, t);
+        if (bucketNext.length < g.size()) {
+            bucketNext = new int[g.size()];
+            bucketPrev = new int[g.size()];
+        }
+        Arrays.fill(bucketHead, -1);
+        int closed = epoch + 1;
+        byte[] cells = g.cells;
+        stamp[s] = epoch;
+        dist[s] = 0;
+        parent[s] = -1;
+        bucketInsert(s, 0);
+        int queued = 1;
+        int cursor = 0;
+
+        while (queued > 0) {
+            track(queued);
+            while (bucketHead[cursor % BUCKETS] == -1) cursor++;
+            int current = bucketHead[cursor % BUCKETS];
+            bucketRemove(current, cursor % BUCKETS);
+            queued--;
+            stamp[current] = closed;
+            expand(current);
+            if (current == t) { found = true; break; }
+            int base = dist[current];
+            int n = neighbors(current);
+            for (int k = 0; k < n; k++) {
+                int next = nbr[k];
+                if (stamp[next] == closed) continue;
+                int newDist = base + cells[next];
+                if (stamp[next] != epoch) {
+                    stamp[next] = epoch;
+                    queued++;
+                } else if (newDist < dist[next]) {
+                    bucketRemove(next, dist[next] % BUCKETS);
+                } else {
+                    continue;
+                }
+                dist[next] = newDist;
+                parent[next] = current;
+                bucketInsert(next, newDist % BUCKETS);
+            }
+        }
+        return found;
+    }
+
+    // BFS that moves whole 64-cell words at a time: a frontier word spreads sideways with shifts (carrying
+    // across word edges) and up/down as-is, then is masked with open & ~visited. Only words holding frontier
+    // bits are touched, and each layer is kept as (word, bits) pairs so the path is traced back without
+    // ever writing per-cell parents or distances. Plain Java longs; the incubating Vector API isn't used.
+    public boolean bitParallelBfs(MazeGrid g, int s, int t) {
+        begin(g, t);
+        prepareBits(g);
+        int cols = g.cols, rows = g.rows, words = bitWords;
+        boolean perCell = recordHistory || sink != null;
+        Arrays.fill(visitedBits, 0, rows * words, 0L);
+        // a cancelled run leaves frontier and spread words behind; a finished one always clears them
+        if (bitsDirty) {
+            Arrays.fill(frontierBits, 0L);
+            Arrays.fill(spreadBits, 0L);
+        }
+        bitsDirty = true;
+        int ti = bitIndex(t);
+        long tb = 1L << (t % cols);
+
+        int si = bitIndex(s);
+        visitedBits[si] = frontierBits[si] = 1L << (s % cols);
+        activeWords[0] = si;
+        int active = 1;
+        int layers = 0, entries = 0;
+
+        while (active > 0) {
+            if (stopRequested()) throw new CancellationException();
+            if ((frontierBits[ti] & tb) != 0) {
+                expand(t);
+                found = true;
+                for (int a = 0; a < active; a++) frontierBits[activeWords[a]] = 0;
+                break;
+            }
+            if (layers + 1 == layerStart.length) layerStart = Arrays.copyOf(layerStart, layers * 2);
+            layerStart[layers++] = entries;
+            if (entries + active > layerWord.length) {
+                int capacity = Math.max(layerWord.length * 2, entries + active);
+                layerWord = Arrays.copyOf(layerWord, capacity);
+                layerBits = Arrays.copyOf(layerBits, capacity);
+            }
+
+            int cells = 0, touched = 0;
+            for (int a = 0; a < active; a++) {
+                int i = activeWords[a];
+                long f = frontierBits[i];
+                frontierBits[i] = 0;
+                layerWord[entries] = i;
+                layerBits[entries++] = f;
+                cells += Long.bitCount(f);
+                if (perCell) {
+                    int base = (i / words) * cols + (i % words << 6);
+                    for (long b = f; b != 0; b &= b - 1) expand(base + Long.numberOfTrailingZeros(b));
+                }
+
+                int r = i / words, w = i - r * words;
+                touched = spread(i, (f << 1) | (f >>> 1), touched);
+                if (w + 1 < words) touched = spread(i + 1, f >>> 63, touched);
+                if (w > 0) touched = spread(i - 1, f << 63, touched);
+                if (r + 1 < rows) touched = spread(i + words, f, touched);
+                if (r > 0) touched = spread(i - words, f, touched);
+            }
+            if (!perCell) expanded += cells;
+            track(cells);
+
+            active = 0;
+            for (int k = 0; k < touched; k++) {
+                int i = touchedWords[k];
+                long fresh = spreadBits[i] & openBits[i] & ~visitedBits[i];
+                spreadBits[i] = 0;
+                if (fresh == 0) continue;
+                visitedBits[i] |= fresh;
+                frontierBits[i] = fresh;
+                activeWords[active++] = i;
+            }
+        }
+        bitsDirty = false;
+        layerStart[layers] = entries;
+        if (found) traceLayers(s, t, layers);
+        return found;
+    }
+
+    private int spread(int i, long bits, int touched) {
+        if (bits == 0) return touched;
+        if (spreadBits[i] == 0) touchedWords[touched++] = i;
+        spreadBits[i] |= bits;
+        return touched;
+    }
+
+    // t sits in layer `layers`; each earlier layer holds exactly one neighbour of the cell after it on some
+    // shortest path, found by scanning that layer's few (word, bits) pairs.
+    private void traceLayers(int s, int t, int layers) {
+        int cols = grid.cols;
+        int cur = t;
+        for (int l = layers - 1; l >= 0; l--) {
+            int r = cur / cols, c = cur - r * cols;
+            int prev = -1;
+            for (int e = layerStart[l]; e < layerStart[l + 1] && prev < 0; e++) {
+                int i = layerWord[e];
+                long bits = layerBits[e];
+                if (c + 1 < cols && i == bitIndex(cur + 1) && (bits & (1L << (c + 1))) != 0) prev = cur + 1;
+                else if (c > 0 && i == bitIndex(cur - 1) && (bits & (1L << (c - 1))) != 0) prev = cur - 1;
+                else if (r + 1 < grid.rows && i == bitIndex(cur + cols) && (bits & (1L << c)) != 0) prev = cur + cols;
+                else if (r > 0 && i == bitIndex(cur - cols) && (bits & (1L << c)) != 0) prev = cur - cols;
+            }
+            parent[cur] = prev;
+            cur = prev;
+        }
+        parent[s] = -1;
+    }
+
+    private int bitIndex(int cell) {
+        int r = cell / grid.cols;
+        return r * bitWords + ((cell - r * grid.cols) >>> 6);
+    }
+
+    // The open-cell bitboard only changes with the grid, so it is rebuilt on a new grid or terrain edit.
+    private void prepareBits(MazeGrid g) {
+        if (bitGrid == g && bitVersion == g.version) return;
+        // read before the fill: an edit landing during it must leave the bits looking stale, not current
+        int version = g.version;
+        // a fill cut short by a cancel must not pass for the bitboard it was overwriting
+        bitGrid = null;
+        int words = (g.cols + 63) >>> 6;
+        int n = g.rows * words;
+        if (openBits.length < n) {
+            openBits = new long[n];
+            visitedBits = new long[n];
+            frontierBits = new long[n];
+            spreadBits = new long[n];
+            activeWords = new int[n];
+            touchedWords = new int[n];
+        }
+        Arrays.fill(openBits, 0, n, 0L);
+        byte[] cells = g.cells;
+        for (int r = 0, i = 0; r < g.rows; r++) {
+            checkInterrupted();
+            for (int c = 0; c < g.cols; c++, i++) {
+                if (cells[i] != MazeGrid.WALL) openBits[r * words + (c >>> 6)] |= 1L << c;
+            }
+        }
+        bitGrid = g;
+        bitVersion = version;
+        bitWords = words;
+    }
+
+    private void bucketInsert(int cell, int bucket) {
+        int head = bucketHead[bucket];
+        bucketNext[cell] = head;
+        bucketPrev[cell] = -1;
+        if (head != -1) bucketPrev[head] = cell;
+        bucketHead[bucket] = cell;
+    }
+
+    private void bucketRemove(int cell, int bucket) {
+        int prev = bucketPrev[cell], next = bucketNext[cell];
+        if (prev == -1) bucketHead[bucket] = next;
+        else bucketNext[prev] = next;
+        if (next != -1) bucketPrev[next] = prev;
+    }
+
+    private static long aStarKey(int g, int h) {
+        return ((long) (g + h) << 32) | h;
+    }
+
+    private int estimate(int a, int t, Landmarks landmarks) {
+        return landmarks == null ? heuristic(a, t) : landmarks.lowerBound(a, t);
+    }
+
+    int heuristic(int a, int b) {
+        int cols = grid.cols;
+        int ar = a / cols, ac = a - ar * cols;
+        int br = b / cols, bc = b - br * cols;
+        return Math.abs(ar - br) + Math.abs(ac - bc);
+    }
+
+    public boolean parallelBfs(MazeGrid g, int s, int t) {
+        if (parallelBfs == null) parallelBfs = new ParallelBfs(ForkJoinPool.commonPool());
+        return runParallel(parallelBfs, g, s, t);
+    }
+
+    public boolean deltaStepping(MazeGrid g, int s, int t) {
+        if (deltaStepping == null) deltaStepping = new DeltaStepping(ForkJoinPool.commonPool());
+        return runParallel(deltaStepping, g, s, t);
+    }
+
+    // The parallel searches keep their own per-cell state; their route is adopted as this search's parent
+    // chain so path(), pathLength() and pathCost() answer as for the sequential solvers. They record no history.
+    private boolean runParallel(ParallelSearch helper, MazeGrid g, int s, int t) {
+        begin(g, t);
+        helper.clearCancel();
+        parallelRunning = helper;
+        try {
+            // a cancel() that ran before parallelRunning was set is seen here instead
+            if (stopRequested()) throw new CancellationException();
+            found = helper.search(g, s, t);
+        } finally {
+            parallelRunning = null;
+        }
+        expanded = (int) Math.min(Integer.MAX_VALUE, helper.getExpanded());
+        if (!found) return false;
+        int[] route = helper.path();
+        parent[route[0]] = -1;
+        for (int k = 1; k < route.length; k++) parent[route[k]] = route[k - 1];
+        return true;
+    }
+
+    public int[] path() {
+        if (!found) return new int[0];
+        int[] path = new int[pathLength()];
+        int i = 0;
+        for (int curr = meet; curr != -1; curr = parent[curr]) i++;
+        for (int curr = meet, k = i - 1; curr != -1; curr = parent[curr], k--) path[k] = curr;
+        if (bidirectional) {
+            for (int curr = meetB; curr != -1; curr = parentB[curr]) path[i++] = curr;
+        }
+        return path;
+    }
+
+    public int pathLength() {
+        if (!found) return 0;
+        int length = 0;
+        for (int curr = meet; curr != -1; curr = parent[curr]) length++;
+        if (bidirectional) {
+            for (int curr = meetB; curr != -1; curr = parentB[curr]) length++;
+        }
+        return length;
+    }
+
+    public int pathCost() {
+        if (!found) return 0;
+        int cost = 0;
+        for (int curr = meet; curr != -1; curr = parent[curr]) cost += grid.cells[curr];
+        if (bidirectional) {
+            for (int curr = meetB; curr != -1; curr = parentB[curr]) cost += grid.cells[curr];
+        }
+        return cost;
+    }
+
+    public int[] history() {
+        return Arrays.copyOf(history, historySize);
+    }
+
+    public void flushExpansions() {
+        if (sink != null && chunkSize > 0) sink.accept(chunk, chunkSize);
+        chunkSize = 0;
+    }
+
+    private void begin(MazeGrid g, int t) {
+        grid = g;
+        int n = g.size();
+        if (stamp.length < n) {
+            stamp = new int[n];
+            parent = new int[n];
+            dist = new int[n];
+            work = new int[n];
+            stampB = new int[0];
+            heap.ensureCapacity(n);
+            epoch = 0;
+        }
+        epoch += 2;
+        if (epoch < 0 || epoch == INF) {
+            Arrays.fill(stamp, 0);
+            Arrays.fill(stampB, 0);
+            epoch = 2;
+        }
+        target = t;
+        meet = t;
+        bidirectional = false;
+        found = false;
+        expanded = 0;
+        peakQueue = 0;
+        historySize = 0;
+        chunkSize = 0;
+    }
+
+    private void expand(int cell) {
+        expanded++;
+        if ((expanded & (CHUNK - 1)) == 0 && stopRequested()) throw new CancellationException();
+        if (sink != null) {
+            chunk[chunkSize++] = cell;
+            if (chunkSize == CHUNK) flushExpansions();
+        }
+        if (!recordHistory) return;
+        if (historySize == history.length) history = Arrays.copyOf(history, historySize * 2);
+        history[historySize++] = cell;
+    }
+
+    private int neighbors(int i) {
+        int cols = grid.cols;
+        byte[] cells = grid.cells;
+        int r = i / cols, c = i - r * cols;
+        int n = 0;
+        if (c + 1 < cols && cells[i + 1] != MazeGrid.WALL) nbr[n++] = i + 1;
+        if (c > 0 && cells[i - 1] != MazeGrid.WALL) nbr[n++] = i - 1;
+        if (r + 1 < grid.rows && cells[i + cols] != MazeGrid.WALL) nbr[n++] = i + cols;
+        if (r > 0 && cells[i - cols] != MazeGrid.WALL) nbr[n++] = i - cols;
+        return n;
+    }
+
+    private void beginBackward() {
+        int n = grid.size();
+        if (stampB.length < n) {
+            stampB = new int[n];
+            parentB = new int[n];
+            distB = new int[n];
+            workB = new int[n];
+            heapB.ensureCapacity(n);
+        }
+    }
+
+    private void track(int queueSize) {
+        if (queueSize > peakQueue) peakQueue = queueSize;
+    }
+}
@@ -0,0 +1,101 @@
+import java.util.Arrays;
+
+public class IndexedMinHeap {
+    private int[] heap = new int[0];
+    private int[] pos = new int[0];
+    private long[] keys = new long[0];
+    private int size;
+
+    public void ensureCapacity(int n) {
+        if (pos.length >= n) return;
+        heap = new int[n];
+        keys = new long[n];
+        pos = new int[n];
+        Arrays.fill(pos, -1);
+        size = 0;
+    }
+
+    public void clear() {
+        for (int i = 0; i < size; i++) pos[heap[i]] = -1;
+        size = 0;
+    }
+
+    public boolean isEmpty() { return size == 0; }
+    public int size() { return size; }
+    public boolean contains(int cell) { return pos[cell] >= 0; }
+    public int peek() { return heap[0]; }
+    public long peekKey() { return keys[heap[0]]; }
+    public long key(int cell) { return keys[cell]; }
+
+    public void push(int cell, long key) {
+        int p = pos[cell];
+        keys[cell] = key;
+        if (p < 0) {
+            p = size++;
+            heap[p] = cell;
+            pos[cell] = p;
+            siftUp(p);
+        } else {
+            siftUp(p);
+            siftDown(pos[cell]);
+        }
+    }
+
+    public int pop() {
+        int top = heap[0];
+        removeAt(0);
+        return top;
+    }
+
+    public void remove(int cell) {
+        int p = pos[cell];
+        if (p >= 0) removeAt(p);
+    }
+
+    private void removeAt(int p) {
+        pos[heap[p]] = -1;
+        int last = heap[--size];
+        if (p == size) return;
+        heap[p] = last;
+        pos[last] = p;
+        siftUp(p);
+        siftDown(pos[last]);
+    }
+
+    private void siftUp(int p) {
+        int cell = heap[p];
+        long key = keys[cell];
+        while (p > 0) {
+            int parent = (p - 1) >>> 2;
+            int other = heap[parent];
+            if (keys[other] <= key) break;
+            heap[p] = other;
+            pos[other] = p;
+            p = parent;
+        }
+        heap[p] = cell;
+        pos[cell] = p;
+    }
+
+    private void siftDown(int p) {
+        int cell = heap[p];
+        long key = keys[cell];
+        while (true) {
+            int first = 4 * p + 1;
+            if (first >= size) break;
+            int best = first;
+            long bestKey = keys[heap[first]];
+            int end = Math.min(first + 4, size);
+            for (int c = first + 1; c < end; c++) {
+                long k = keys[heap[c]];
+                if (k < bestKey) { best = c; bestKey = k; }
+            }
+            if (bestKey >= key) break;
+            heap[p] = heap[best];
+            pos[heap[p]] = p;
+            p = best;
+        }
+        heap[p] = cell;
+        pos[cell] = p;
+    }
+}
@@ -0,0 +1,248 @@
+import java.util.Arrays;
+
+// Corridor contraction: dead ends are peeled away, every remaining cell with other than two open neighbours
+// (plus start and treasure) becomes a junction, and each corridor between two junctions becomes one edge
+// carrying its summed terrain cost and its step count. Searches run on junctions and unroll corridors after.
+public class JunctionGraph {
+    public static final int BFS = 0;
+    public static final int DIJKSTRA = 1;
+    public static final int ASTAR = 2;
+    private static final int INF = GridSearch.INF;
+
+    final MazeGrid grid;
+    final int version;
+    final int start, goal;
+
+    private final boolean[] alive;
+    private int aliveCount;
+    private final int[] nodeOf;
+    private int[] nodeCell;
+    private int nodeCount;
+    private int[] edgeStart;
+    private int[] edgeTarget;
+    private int[] edgeCost;
+    private int[] edgeSteps;
+    private int[] edgeFirst;
+    private int edgeCount;
+    private final long buildNanos;
+
+    private int[] dist = new int[0];
+    private int[] parentEdge = new int[0];
+    private final IndexedMinHeap heap = new IndexedMinHeap();
+    private int expanded;
+    private int peakQueue;
+    private int[] history = new int[64];
+    private int historySize;
+
+    public JunctionGraph(MazeGrid grid) {
+        long t0 = System.nanoTime();
+        this.grid = grid;
+        this.version = grid.version;
+        this.start = grid.start;
+        this.goal = grid.end;
+        int n = grid.size();
+        alive = new boolean[n];
+        nodeOf = new int[n];
+        pruneDeadEnds();
+        findJunctions();
+        buildEdges();
+        buildNanos = System.nanoTime() - t0;
+    }
+
+    public boolean matches(MazeGrid grid) {
+        return this.grid == grid && version == grid.version && start == grid.start && goal == grid.end;
+    }
+
+    public long getBuildNanos() { return buildNanos; }
+    public int getNodeCount() { return nodeCount; }
+    public int getEdgeCount() { return edgeCount; }
+    public int getAliveCount() { return aliveCount; }
+    public int getExpanded() { return expanded; }
+    public int getPeakQueue() { return peakQueue; }
+
+    // Cells of the junctions popped by the last query, in order.
+    public int[] history() {
+        return Arrays.copyOf(history, historySize);
+    }
+
+    private int degree(int cell, int[] out) {
+        int cols = grid.cols;
+        int r = cell / cols, c = cell - r * cols;
+        int n = 0;
+        if (c + 1 < cols && alive[cell + 1]) out[n++] = cell + 1;
+        if (c > 0 && alive[cell - 1]) out[n++] = cell - 1;
+        if (r + 1 < grid.rows && alive[cell + cols]) out[n++] = cell + cols;
+        if (r > 0 && alive[cell - cols]) out[n++] = cell - cols;
+        return n;
+    }
+
+    // A dead end can never be on a route unless it is an endpoint, and removing one may expose the next.
+    private void pruneDeadEnds() {
+        int n = grid.size();
+        for (int i = 0; i < n; i++) alive[i] = grid.isOpen(i);
+        alive[start] = alive[goal] = true;
+        int[] nbr = new int[4];
+        int[] stack = new int[64];
+        int top = 0;
+        for (int i = 0; i < n; i++) {
+            if ((i & 0xFFFF) == 0) GridSearch.checkInterrupted();
+            if (!alive[i] || i == start || i == goal || degree(i, nbr) > 1) continue;
+            if (top == stack.length) stack = Arrays.copyOf(stack, top * 2);
+            stack[top++] = i;
+        }
+        while (top > 0) {
+            int cell = stack[--top];
+            if (!alive[cell]) continue;
+            int d = degree(cell, nbr);
+            if (d > 1) continue;
+            alive[cell] = false;
+            if (d == 1) {
+                int next = nbr[0];
+                if (next != start && next != goal && degree(next, nbr) <= 1) {
+                    if (top == stack.length) stack = Arrays.copyOf(stack, top * 2);
+                    stack[top++] = next;
+                }
+            }
+        }
+        for (int i = 0; i < n; i++) if (alive[i]) aliveCount++;
+    }
+
+    private void findJunctions() {
+        int[] nbr = new int[4];
+        nodeCell = new int[64];
+        Arrays.fill(nodeOf, -1);
+        for (int i = 0; i < grid.size(); i++) {
+            if ((i & 0xFFFF) == 0) GridSearch.checkInterrupted();
+            if (!alive[i] || (degree(i, nbr) == 2 && i != start && i != goal)) continue;
+            if (nodeCount == nodeCell.length) nodeCell = Arrays.copyOf(nodeCell, nodeCount * 2);
+            nodeOf[i] = nodeCount;
+            nodeCell[nodeCount++] = i;
+        }
+    }
+
+    // Corridor cells have exactly two live neighbours, so a walk out of a junction has only one way to go.
+    private void buildEdges() {
+        int capacity = Math.max(16, nodeCount * 3);
+        edgeTarget = new int[capacity];
+        edgeCost = new int[capacity];
+        edgeSteps = new int[capacity];
+        edgeFirst = new int[capacity];
+        edgeStart = new int[nodeCount + 1];
+        int[] nbr = new int[4];
+        int[] step = new int[4];
+
+        for (int u = 0; u < nodeCount; u++) {
+            if ((u & 0xFFF) == 0) GridSearch.checkInterrupted();
+            edgeStart[u] = edgeCount;
+            int from = nodeCell[u];
+            int d = degree(from, nbr);
+            for (int k = 0; k < d; k++) {
+                int prev = from, cur = nbr[k];
+                int cost = grid.type(cur), steps = 1;
+                while (nodeOf[cur] < 0) {
+                    degree(cur, step);
+                    int next = step[0] == prev ? step[1] : step[0];
+                    prev = cur;
+                    cur = next;
+                    cost += grid.type(cur);
+                    steps++;
+                }
+                if (cur == from) continue;
+                if (edgeCount == edgeTarget.length) {
+                    edgeTarget = Arrays.copyOf(edgeTarget, edgeCount * 2);
+                    edgeCost = Arrays.copyOf(edgeCost, edgeCount * 2);
+                    edgeSteps = Arrays.copyOf(edgeSteps, edgeCount * 2);
+                    edgeFirst = Arrays.copyOf(edgeFirst, edgeCount * 2);
+                }
+                edgeTarget[edgeCount] = nodeOf[cur];
+                edgeCost[edgeCount] = cost;
+                edgeSteps[edgeCount] = steps;
+                edgeFirst[edgeCount++] = nbr[k];
+            }
+        }
+        edgeStart[nodeCount] = edgeCount;
+    }
+
+    // BFS counts steps, Dijkstra and A* count terrain; each corridor is at least as long as the Manhattan
+    // distance it covers, so that distance stays an admissible A* heuristic on either weight.
+    public int[] findPath(int mode) {
+        expanded = 0;
+        peakQueue = 0;
+        historySize = 0;
+        if (dist.length < nodeCount) {
+            dist = new int[nodeCount];
+            parentEdge = new int[nodeCount];
+            heap.ensureCapacity(nodeCount);
+        }
+        Arrays.fill(dist, 0, nodeCount, INF);
+        int s = nodeOf[start], t = nodeOf[goal];
+        int[] weight = mode == BFS ? edgeSteps : edgeCost;
+
+        dist[s] = 0;
+        parentEdge[s] = -1;
+        heap.push(s, key(0, s, mode));
+        while (!heap.isEmpty()) {
+            peakQueue = Math.max(peakQueue, heap.size());
+            int u = heap.pop();
+            expanded++;
+            if (historySize == history.length) history = Arrays.copyOf(history, historySize * 2);
+            history[historySize++] = nodeCell[u];
+            if (u == t) break;
+            for (int e = edgeStart[u]; e < edgeStart[u + 1]; e++) {
+                int v = edgeTarget[e];
+                int d = dist[u] + weight[e];
+                if (d >= dist[v]) continue;
+                dist[v] = d;
+                parentEdge[v] = e;
+                heap.push(v, key(d, v, mode));
+            }
+        }
+        heap.clear();
+        return dist[t] == INF ? new int[0] : unroll(s, t);
+    }
+
+    private long key(int d, int node, int mode) {
+        if (mode != ASTAR) return d;
+        int cell = nodeCell[node];
+        int h = Math.abs(grid.row(cell) - grid.row(goal)) + Math.abs(grid.col(cell) - grid.col(goal));
+        return ((long) (d + h) << 32) | h;
+    }
+
+    private int[] unroll(int s, int t) {
+        int hops = 0, length = 1;
+        for (int v = t; v != s; v = sourceOf(parentEdge[v])) {
+            hops++;
+            length += edgeSteps[parentEdge[v]];
+        }
+        int[] edges = new int[hops];
+        for (int v = t, k = hops - 1; v != s; v = sourceOf(parentEdge[v]), k--) edges[k] = parentEdge[v];
+
+        int[] path = new int[length];
+        int[] step = new int[4];
+        int n = 0;
+        path[n++] = start;
+        for (int e : edges) {
+            int prev = path[n - 1], cur = edgeFirst[e];
+            path[n++] = cur;
+            while (nodeOf[cur] < 0) {
+                degree(cur, step);
+                int next = step[0] == prev ? step[1] : step[0];
+                prev = cur;
+                cur = next;
+                path[n++] = cur;
+            }
+        }
+        return path;
+    }
+
+    // edges are stored grouped by source, so the source is the last node whose range starts at or before e
+    private int sourceOf(int e) {
+        int lo = 0, hi = nodeCount - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (edgeStart[mid] <= e) lo = mid;
+            else hi = mid - 1;
+        }
+        return lo;
+    }
+}
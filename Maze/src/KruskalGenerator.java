@@ -0,0 +1,58 @@
+import java.util.Random;
+
+public class KruskalGenerator implements MazeGenerator {
+
+    @Override
+    public String getName() { return "Kruskal"; }
+
+    @Override
+    public void carve(MazeGrid grid, Random rand) {
+        int roomRows = (grid.rows - 1) / 2;
+        int roomCols = (grid.cols - 1) / 2;
+        int rooms = roomRows * roomCols;
+
+        int[] walls = new int[2 * rooms];
+        int wallCount = 0;
+        for (int room = 0; room < rooms; room++) {
+            grid.cells[roomCell(grid, room, roomCols)] = MazeGrid.GRASS;
+            if (room % roomCols + 1 < roomCols) walls[wallCount++] = room * 2;
+            if (room / roomCols + 1 < roomRows) walls[wallCount++] = room * 2 + 1;
+        }
+
+        for (int i = wallCount - 1; i > 0; i--) {
+            int j = rand.nextInt(i + 1);
+            int tmp = walls[i]; walls[i] = walls[j]; walls[j] = tmp;
+        }
+
+        int[] parent = new int[rooms];
+        byte[] rank = new byte[rooms];
+        for (int i = 0; i < rooms; i++) parent[i] = i;
+
+        int joined = 0;
+        for (int w = 0; w < wallCount && joined < rooms - 1; w++) {
+            int a = walls[w] >>> 1;
+            int b = (walls[w] & 1) == 0 ? a + 1 : a + roomCols;
+            int rootA = find(parent, a), rootB = find(parent, b);
+            if (rootA == rootB) continue;
+
+            if (rank[rootA] < rank[rootB]) { int tmp = rootA; rootA = rootB; rootB = tmp; }
+            parent[rootB] = rootA;
+            if (rank[rootA] == rank[rootB]) rank[rootA]++;
+
+            MazeBuilder.connect(grid, roomCell(grid, a, roomCols), roomCell(grid, b, roomCols));
+            joined++;
+        }
+    }
+
+    private static int find(int[] parent, int x) {
+        while (parent[x] != x) {
+            parent[x] = parent[parent[x]];
+            x = parent[x];
+        }
+        return x;
+    }
+
+    private static int roomCell(MazeGrid grid, int room, int roomCols) {
+        return grid.index(2 * (room / roomCols) + 1, 2 * (room % roomCols) + 1);
+    }
+}
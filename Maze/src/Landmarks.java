@@ -0,0 +1,153 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// ALT tables: full distance arrays from a few landmarks spread around the border, giving A* a
+// triangle-inequality lower bound that sees walls and terrain instead of straight-line distance.
+public class Landmarks {
+    static final int MAX_LANDMARKS = 8;
+    static final long TABLE_BUDGET = 256L << 20;
+    private static final int INF = GridSearch.INF;
+
+    final MazeGrid grid;
+    final int version;
+    final int[] cells;
+    private final int[][] dist;
+    private final long buildNanos;
+
+    private Landmarks(MazeGrid grid, int version, int[] cells, int[][] dist, long buildNanos) {
+        this.grid = grid;
+        this.version = version;
+        this.cells = cells;
+        this.dist = dist;
+        this.buildNanos = buildNanos;
+    }
+
+    public static Landmarks build(MazeGrid grid) throws Exception {
+        int k = (int) Math.max(1, Math.min(MAX_LANDMARKS, TABLE_BUDGET / (4L * grid.size())));
+        return build(grid, k, Runtime.getRuntime().availableProcessors());
+    }
+
+    public static Landmarks build(MazeGrid grid, int k, int threads) throws Exception {
+        long t0 = System.nanoTime();
+        // tables finished after an edit must still look stale to matches()
+        int version = grid.version;
+        int[] cells = place(grid, k);
+        int[][] dist = new int[cells.length][];
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, cells.length)));
+        try {
+            List<Future<int[]>> futures = new ArrayList<>();
+            for (int landmark : cells) futures.add(pool.submit(() -> distancesFrom(grid, landmark)));
+            for (int j = 0; j < cells.length; j++) dist[j] = futures.get(j).get();
+        } finally {
+            // an interrupted get() leaves the other Dijkstras running; shutdownNow interrupts them too
+            pool.shutdownNow();
+        }
+        return new Landmarks(grid, version, cells, dist, System.nanoTime() - t0);
+    }
+
+    public boolean matches(MazeGrid grid) {
+        return this.grid == grid && version == grid.version;
+    }
+
+    public int count() { return cells.length; }
+    public long getBuildNanos() { return buildNanos; }
+    public long tableBytes() { return 4L * grid.size() * cells.length; }
+
+    // max over landmarks of d(L,t) - d(L,v) and d(v,L) - d(t,L); walking a route backwards pays for the
+    // other endpoint, so d(v,L) = d(L,v) - type(v) + type(L).
+    public int lowerBound(int v, int t) {
+        int cols = grid.cols;
+        int best = Math.abs(v / cols - t / cols) + Math.abs(v % cols - t % cols);
+        int adjust = grid.type(t) - grid.type(v);
+        for (int[] d : dist) {
+            int dv = d[v], dt = d[t];
+            if (dv == INF || dt == INF) continue;
+            if (dt - dv > best) best = dt - dv;
+            if (dv - dt + adjust > best) best = dv - dt + adjust;
+        }
+        return best;
+    }
+
+    // Landmarks work best far apart and behind likely goals, so they take the open cell nearest to the
+    // opposite corners first, then the other two corners, then the edge midpoints.
+    private static int[] place(MazeGrid grid, int k) {
+        int rows = grid.rows, cols = grid.cols;
+        int[][] anchors = {
+                {0, 0}, {rows - 1, cols - 1}, {0, cols - 1}, {rows - 1, 0},
+                {0, cols / 2}, {rows - 1, cols / 2}, {rows / 2, 0}, {rows / 2, cols - 1}};
+        int[] cells = new int[Math.min(k, anchors.length)];
+        int n = 0;
+        for (int j = 0; j < anchors.length && n < cells.length; j++) {
+            int cell = nearestOpen(grid, anchors[j][0], anchors[j][1]);
+            if (cell < 0) continue;
+            boolean duplicate = false;
+            for (int i = 0; i < n; i++) duplicate |= cells[i] == cell;
+            if (!duplicate) cells[n++] = cell;
+        }
+        return Arrays.copyOf(cells, n);
+    }
+
+    private static int nearestOpen(MazeGrid grid, int r, int c) {
+        int limit = Math.max(grid.rows, grid.cols);
+        for (int radius = 0; radius < limit; radius++) {
+            for (int dr = -radius; dr <= radius; dr++) {
+                int span = radius - Math.abs(dr);
+                for (int dc = -span; dc <= span; dc += Math.max(1, 2 * span)) {
+                    if (grid.isValid(r + dr, c + dc) && grid.isOpen(grid.index(r + dr, c + dc))) return grid.index(r + dr, c + dc);
+                }
+            }
+        }
+        return -1;
+    }
+
+    static int[] distancesFrom(MazeGrid grid, int source) {
+        int[] d = new int[grid.size()];
+        Arrays.fill(d, INF);
+        dial(grid, source, false, d, null);
+        return d;
+    }
+
+    // Dial's buckets: edge costs are 1, 5 or 10, so a ring of MUD + 1 lists with lazy deletion replaces the heap.
+    // Forward, stepping u -> v costs type(v); reversed, the walk runs v -> u and charges u's own terrain, and
+    // next[v] (when given) records the direction code of that step for FlowField. dist must arrive filled with INF.
+    static void dial(MazeGrid grid, int source, boolean reverse, int[] dist, byte[] next) {
+        int cols = grid.cols, rows = grid.rows;
+        int[][] bucket = new int[GridSearch.BUCKETS][64];
+        int[] size = new int[GridSearch.BUCKETS];
+
+        dist[source] = 0;
+        bucket[0][size[0]++] = source;
+        int pending = 1;
+        for (int cost = 0; pending > 0; cost++) {
+            GridSearch.checkInterrupted();
+            int b = cost % GridSearch.BUCKETS;
+            while (size[b] > 0) {
+                int u = bucket[b][--size[b]];
+                pending--;
+                if (dist[u] != cost) continue;
+                int r = u / cols, c = u - r * cols;
+                for (int k = 0; k < 4; k++) {
+                    int v;
+                    byte back;
+                    if (k == 0) { if (c + 1 >= cols) continue; v = u + 1; back = 1; }
+                    else if (k == 1) { if (c == 0) continue; v = u - 1; back = 0; }
+                    else if (k == 2) { if (r + 1 >= rows) continue; v = u + cols; back = 3; }
+                    else { if (r == 0) continue; v = u - cols; back = 2; }
+                    if (!grid.isOpen(v)) continue;
+                    int nd = cost + grid.type(reverse ? u : v);
+                    if (nd >= dist[v]) continue;
+                    dist[v] = nd;
+                    if (next != null) next[v] = back;
+                    int nb = nd % GridSearch.BUCKETS;
+                    if (size[nb] == bucket[nb].length) bucket[nb] = Arrays.copyOf(bucket[nb], size[nb] * 2);
+                    bucket[nb][size[nb]++] = v;
+                    pending++;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,117 @@
+import java.util.Arrays;
+
+// Lifelong Planning A*: g and rhs survive between queries, so after a terrain edit only the cells whose
+// distance from the start actually changed go back through the queue.
+public class LpaStar {
+    private static final int INF = GridSearch.INF;
+
+    final MazeGrid grid;
+    private final int start, goal;
+    private final int[] g, rhs;
+    private final IndexedMinHeap open = new IndexedMinHeap();
+    private final int[] adj = new int[4];
+    private final int[] pred = new int[4];
+    private int expanded;
+
+    public LpaStar(MazeGrid grid) {
+        this.grid = grid;
+        this.start = grid.start;
+        this.goal = grid.end;
+        int n = grid.size();
+        g = new int[n];
+        rhs = new int[n];
+        Arrays.fill(g, INF);
+        Arrays.fill(rhs, INF);
+        open.ensureCapacity(n);
+        rhs[start] = 0;
+        open.push(start, key(start));
+    }
+
+    public boolean matches(MazeGrid grid) {
+        return this.grid == grid && start == grid.start && goal == grid.end;
+    }
+
+    public int getExpanded() { return expanded; }
+
+    // Call after grid.cells[cell] changed: the cost of entering the cell and the edges leaving it both move.
+    public void cellChanged(int cell) {
+        updateVertex(cell);
+        int n = neighbors(cell, adj);
+        for (int k = 0; k < n; k++) updateVertex(adj[k]);
+    }
+
+    public boolean computeShortestPath() {
+        expanded = 0;
+        while (!open.isEmpty() && (open.peekKey() < key(goal) || rhs[goal] != g[goal])) {
+            int u = open.pop();
+            expanded++;
+            if (g[u] > rhs[u]) {
+                g[u] = rhs[u];
+            } else {
+                g[u] = INF;
+                updateVertex(u);
+            }
+            int n = neighbors(u, adj);
+            for (int k = 0; k < n; k++) updateVertex(adj[k]);
+        }
+        return g[goal] != INF;
+    }
+
+    public int[] path() {
+        if (g[goal] == INF) return new int[0];
+        int[] reversed = new int[64];
+        int length = 0;
+        int cur = goal;
+        reversed[length++] = cur;
+        while (cur != start && length <= grid.size()) {
+            cur = bestPredecessor(cur);
+            if (cur < 0) return new int[0];
+            if (length == reversed.length) reversed = Arrays.copyOf(reversed, length * 2);
+            reversed[length++] = cur;
+        }
+        int[] path = new int[length];
+        for (int i = 0; i < length; i++) path[i] = reversed[length - 1 - i];
+        return path;
+    }
+
+    private void updateVertex(int u) {
+        if (u != start) {
+            int best = grid.isOpen(u) ? bestPredecessor(u) : -1;
+            rhs[u] = best < 0 ? INF : g[best] + grid.type(u);
+        }
+        if (g[u] != rhs[u]) open.push(u, key(u));
+        else if (open.contains(u)) open.remove(u);
+    }
+
+    private int bestPredecessor(int u) {
+        int n = neighbors(u, pred);
+        int best = -1;
+        for (int k = 0; k < n; k++) {
+            int p = pred[k];
+            if (g[p] != INF && (best < 0 || g[p] < g[best])) best = p;
+        }
+        return best;
+    }
+
+    private long key(int u) {
+        int m = Math.min(g[u], rhs[u]);
+        if (m == INF) return Long.MAX_VALUE;
+        return ((long) (m + heuristic(u)) << 32) | m;
+    }
+
+    private int heuristic(int u) {
+        int cols = grid.cols;
+        return Math.abs(u / cols - goal / cols) + Math.abs(u % cols - goal % cols);
+    }
+
+    private int neighbors(int i, int[] out) {
+        int cols = grid.cols;
+        int r = i / cols, c = i - r * cols;
+        int n = 0;
+        if (c + 1 < cols && grid.isOpen(i + 1)) out[n++] = i + 1;
+        if (c > 0 && grid.isOpen(i - 1)) out[n++] = i - 1;
+        if (r + 1 < grid.rows && grid.isOpen(i + cols)) out[n++] = i + cols;
+        if (r > 0 && grid.isOpen(i - cols)) out[n++] = i - cols;
+        return n;
+    }
+}
@@ -0,0 +1,207 @@
+import java.util.Arrays;
+
+// Dijkstra or A* read straight from a MazeFile mapping, for grids too large to unpack into a MazeGrid. Cells are
+// long indices, and per-cell state lives in an epoch-stamped open-addressing table that grows with the cells a
+// query touches rather than with the grid, so a query on a multi-gigabyte maze pays memory for its region only.
+public class MappedSearch {
+    private static final int MAX_TABLE = 1 << 30;
+
+    private final MazeFile file;
+    private final long rows, cols;
+    private final boolean heuristic;
+
+    private long[] keys = new long[1 << 12];
+    private int[] stamp = new int[1 << 12];
+    private long[] dist = new long[1 << 12];
+    private long[] parent = new long[1 << 12];
+    private boolean[] closed = new boolean[1 << 12];
+    private int used;
+    private int epoch;
+
+    // binary heap ordered by f, ties going to the larger g; stale entries are skipped when popped
+    private long[] heapF = new long[256];
+    private long[] heapG = new long[256];
+    private long[] heapCell = new long[256];
+    private int heapSize;
+
+    private long source, target;
+    private boolean found;
+    private long expanded;
+    private int peakQueue;
+
+    public MappedSearch(MazeFile file, boolean heuristic) {
+        this.file = file;
+        this.rows = file.rows;
+        this.cols = file.cols;
+        this.heuristic = heuristic;
+    }
+
+    public long getExpanded() { return expanded; }
+    public int getPeakQueue() { return peakQueue; }
+
+    public boolean search(long s, long t) {
+        if (++epoch == 0) {
+            Arrays.fill(stamp, 0);
+            epoch = 1;
+        }
+        used = 0;
+        heapSize = 0;
+        expanded = 0;
+        peakQueue = 0;
+        source = s;
+        target = t;
+        found = false;
+        if (!file.isOpen(s) || !file.isOpen(t)) return false;
+
+        int slot = claim(s);
+        dist[slot] = 0;
+        parent[slot] = -1;
+        push(estimate(s), 0, s);
+        while (heapSize > 0) {
+            peakQueue = Math.max(peakQueue, heapSize);
+            long g = heapG[0], u = heapCell[0];
+            pop();
+            int us = slot(u);
+            if (closed[us] || g != dist[us]) continue;
+            closed[us] = true;
+            expanded++;
+            if (u == t) {
+                found = true;
+                break;
+            }
+            long r = u / cols, c = u - r * cols;
+            if (c + 1 < cols) relax(u, g, u + 1);
+            if (c > 0) relax(u, g, u - 1);
+            if (r + 1 < rows) relax(u, g, u + cols);
+            if (r > 0) relax(u, g, u - cols);
+        }
+        return found;
+    }
+
+    private void relax(long u, long g, long v) {
+        int type = file.type(v);
+        if (type == MazeGrid.WALL) return;
+        long d = g + type;
+        int slot = slot(v);
+        if (slot < 0) {
+            slot = claim(v);
+        } else if (closed[slot] || d >= dist[slot]) {
+            return;
+        }
+        dist[slot] = d;
+        parent[slot] = u;
+        push(d + estimate(v), d, v);
+    }
+
+    // every step costs at least GRASS, so Manhattan distance never overestimates
+    private long estimate(long v) {
+        if (!heuristic) return 0;
+        long r = v / cols, c = v - r * cols;
+        long tr = target / cols, tc = target - tr * cols;
+        return Math.abs(r - tr) + Math.abs(c - tc);
+    }
+
+    // Cell count of the route including both ends, as GridSearch.pathLength.
+    public long pathLength() {
+        if (!found) return 0;
+        long length = 0;
+        for (long cur = target; cur != -1; cur = parent[slot(cur)]) length++;
+        return length;
+    }
+
+    // Terrain summed over the route including the start cell, as GridSearch.pathCost.
+    public long pathCost() {
+        return found ? dist[slot(target)] + file.type(source) : 0;
+    }
+
+    public long[] path() {
+        if (!found) return new long[0];
+        long length = pathLength();
+        if (length > Integer.MAX_VALUE - 8) throw new IllegalStateException("Rute terlalu panjang untuk satu array");
+        long[] path = new long[(int) length];
+        int k = path.length - 1;
+        for (long cur = target; cur != -1; cur = parent[slot(cur)]) path[k--] = cur;
+        return path;
+    }
+
+    // Index of cell in the table, or the bitwise complement of the free slot where it would go.
+    private int slot(long cell) {
+        int mask = keys.length - 1;
+        long h = cell * 0x9E3779B97F4A7C15L;
+        for (int i = (int) (h ^ (h >>> 32)) & mask; ; i = (i + 1) & mask) {
+            if (stamp[i] != epoch) return ~i;
+            if (keys[i] == cell) return i;
+        }
+    }
+
+    private int claim(long cell) {
+        if (2 * (used + 1) > keys.length) grow();
+        int i = ~slot(cell);
+        stamp[i] = epoch;
+        keys[i] = cell;
+        closed[i] = false;
+        used++;
+        return i;
+    }
+
+    private void grow() {
+        if (keys.length == MAX_TABLE) throw new IllegalStateException("Pencarian menyentuh terlalu banyak sel");
+        long[] oldKeys = keys, oldDist = dist, oldParent = parent;
+        int[] oldStamp = stamp;
+        boolean[] oldClosed = closed;
+        int capacity = keys.length * 2;
+        keys = new long[capacity];
+        stamp = new int[capacity];
+        dist = new long[capacity];
+        parent = new long[capacity];
+        closed = new boolean[capacity];
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldStamp[j] != epoch) continue;
+            int i = ~slot(oldKeys[j]);
+            stamp[i] = epoch;
+            keys[i] = oldKeys[j];
+            dist[i] = oldDist[j];
+            parent[i] = oldParent[j];
+            closed[i] = oldClosed[j];
+        }
+    }
+
+    private boolean before(int a, int b) {
+        return heapF[a] < heapF[b] || (heapF[a] == heapF[b] && heapG[a] > heapG[b]);
+    }
+
+    private void swap(int a, int b) {
+        long f = heapF[a], g = heapG[a], cell = heapCell[a];
+        heapF[a] = heapF[b]; heapG[a] = heapG[b]; heapCell[a] = heapCell[b];
+        heapF[b] = f; heapG[b] = g; heapCell[b] = cell;
+    }
+
+    private void push(long f, long g, long cell) {
+        if (heapSize == heapF.length) {
+            heapF = Arrays.copyOf(heapF, heapSize * 2);
+            heapG = Arrays.copyOf(heapG, heapSize * 2);
+            heapCell = Arrays.copyOf(heapCell, heapSize * 2);
+        }
+        int i = heapSize++;
+        heapF[i] = f;
+        heapG[i] = g;
+        heapCell[i] = cell;
+        while (i > 0 && before(i, (i - 1) >>> 1)) {
+            swap(i, (i - 1) >>> 1);
+            i = (i - 1) >>> 1;
+        }
+    }
+
+    private void pop() {
+        swap(0, --heapSize);
+        int i = 0;
+        while (true) {
+            int l = 2 * i + 1, best = i;
+            if (l < heapSize && before(l, best)) best = l;
+            if (l + 1 < heapSize && before(l + 1, best)) best = l + 1;
+            if (best == i) return;
+            swap(i, best);
+            i = best;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+import java.util.Random;
+
+public class MazeBuilder {
+    static final MazeGenerator[] GENERATORS = {
+            new PrimGenerator(), new KruskalGenerator(), new BacktrackerGenerator(), new EllerGenerator()
+    };
+
+    static final int DECORATION_NONE = 0;
+    // decorate(): extra loops, then terrain weights
+    static final int DECORATION_LOOPS = 1;
+    // EllerGenerator.stream's row-by-row terrain, no extra loops
+    static final int DECORATION_ROWS = 2;
+
+    static int generatorId(MazeGenerator generator) {
+        for (int i = 0; i < GENERATORS.length; i++) {
+            if (GENERATORS[i].getClass() == generator.getClass()) return i;
+        }
+        return -1;
+    }
+
+    static String describe(int generator, int decoration) {
+        String name = generator >= 0 && generator < GENERATORS.length ? GENERATORS[generator].getName() : "generator tidak diketahui";
+        switch (decoration) {
+            case DECORATION_LOOPS: return name + ", loop + medan";
+            case DECORATION_ROWS: return name + ", medan per baris";
+            default: return name + ", tanpa dekorasi";
+        }
+    }
+
+    public static MazeGrid newGrid(int rows, int cols, Random rand) {
+        MazeGrid grid = new MazeGrid(rows, cols, rand.nextInt());
+        grid.start = grid.index(1, 1);
+        grid.end = grid.index(rows - 2, cols - 2);
+        return grid;
+    }
+
+    public static MazeGrid build(int rows, int cols, MazeGenerator generator, Random rand) {
+        MazeGrid grid = newGrid(rows, cols, rand);
+        generator.carve(grid, rand);
+        grid.generator = generatorId(generator);
+        decorate(grid, rand);
+        return grid;
+    }
+
+    public static void decorate(MazeGrid grid, Random rand) {
+        createLoops(grid, rand);
+        assignWeights(grid, rand);
+        grid.cells[grid.end] = MazeGrid.GRASS;
+        grid.decoration = DECORATION_LOOPS;
+    }
+
+    static void createLoops(MazeGrid grid, Random rand) {
+        for (int r = 1; r < grid.rows - 1; r++) {
+            for (int c = 1; c < grid.cols - 1; c++) {
+                int i = grid.index(r, c);
+                if (grid.cells[i] == MazeGrid.WALL) {
+                    if (rand.nextInt(100) < 15) grid.cells[i] = MazeGrid.GRASS;
+                }
+            }
+        }
+    }
+
+    static void assignWeights(MazeGrid grid, Random rand) {
+        for (int i = 0; i < grid.size(); i++) {
+            if (grid.cells[i] != MazeGrid.WALL && i != grid.start && i != grid.end) {
+                int chance = rand.nextInt(100);
+                if (chance < 60) grid.cells[i] = MazeGrid.GRASS;
+                else if (chance < 85) grid.cells[i] = MazeGrid.WATER;
+                else grid.cells[i] = MazeGrid.MUD;
+            }
+        }
+    }
+
+    static int roomCount(MazeGrid grid) {
+        return ((grid.rows - 1) / 2) * ((grid.cols - 1) / 2);
+    }
+
+    static int roomNeighbors(MazeGrid grid, int cell, int[] out, boolean open) {
+        int r = grid.row(cell), c = grid.col(cell);
+        int n = 0;
+        if (c + 2 < grid.cols && grid.isOpen(cell + 2) == open) out[n++] = cell + 2;
+        if (c - 2 >= 0 && grid.isOpen(cell - 2) == open) out[n++] = cell - 2;
+        if (r + 2 < grid.rows && grid.isOpen(cell + 2 * grid.cols) == open) out[n++] = cell + 2 * grid.cols;
+        if (r - 2 >= 0 && grid.isOpen(cell - 2 * grid.cols) == open) out[n++] = cell - 2 * grid.cols;
+        return n;
+    }
+
+    static void connect(MazeGrid grid, int a, int b) {
+        grid.cells[a] = MazeGrid.GRASS;
+        grid.cells[b] = MazeGrid.GRASS;
+        grid.cells[(a + b) / 2] = MazeGrid.GRASS;
+    }
+
+    static String formatRate(String name, long cells, long nanos) {
+        double seconds = nanos / 1e9;
+        return String.format("%s: %,d sel dalam %.1f ms (%,.0f sel/detik)", name, cells, nanos / 1e6, cells / seconds);
+    }
+
+    public static void main(String[] args) {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 2001;
+        int cols = args.length > 1 ? Integer.parseInt(args[1]) : rows;
+        int repeats = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        for (MazeGenerator generator : GENERATORS) {
+            long best = Long.MAX_VALUE;
+            for (int i = 0; i < repeats; i++) {
+                Random rand = new Random(i);
+                MazeGrid grid = newGrid(rows, cols, rand);
+                long t0 = System.nanoTime();
+                generator.carve(grid, rand);
+                best = Math.min(best, System.nanoTime() - t0);
+            }
+            System.out.println(formatRate(generator.getName(), (long) rows * cols, best));
+        }
+    }
+}
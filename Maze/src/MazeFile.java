@@ -0,0 +1,139 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+// Layout (big-endian): magic, version, rows, cols, startRow, startCol, endRow, endCol, generator, decoration (ints),
+// seed (long), then 2 bits per cell in row-major order, four cells per byte starting at the low bits. generator
+// indexes MazeBuilder.GENERATORS (-1 unknown) and decoration is one of MazeBuilder.DECORATION_*, so together
+// with the seed the header says how the grid was produced.
+public class MazeFile {
+    static final int MAGIC = 0x4D415A32;
+    static final int VERSION = 2;
+    static final int HEADER_BYTES = 10 * 4 + 8;
+
+    private static final byte[] TYPES = {MazeGrid.WALL, MazeGrid.GRASS, MazeGrid.WATER, MazeGrid.MUD};
+    private static final int SEGMENT_SHIFT = 30;
+
+    final int rows, cols;
+    final int startRow, startCol, endRow, endCol;
+    final int generator, decoration;
+    final long seed;
+
+    private final MappedByteBuffer[] segments;
+
+    private MazeFile(ByteBuffer header, MappedByteBuffer[] segments) {
+        header.position(8);
+        rows = header.getInt();
+        cols = header.getInt();
+        startRow = header.getInt();
+        startCol = header.getInt();
+        endRow = header.getInt();
+        endCol = header.getInt();
+        generator = header.getInt();
+        decoration = header.getInt();
+        seed = header.getLong();
+        this.segments = segments;
+    }
+
+    public static MazeFile map(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            channel.read(header, 0);
+            header.flip();
+            // checked before the length, so an older and shorter header reports its version instead of truncation
+            if (header.remaining() < 8 || header.getInt(0) != MAGIC) throw new IOException("Bukan file maze");
+            int version = header.getInt(4);
+            if (version != VERSION) throw new IOException("Versi file maze tidak didukung: " + version + " (butuh " + VERSION + ")");
+            if (header.remaining() < HEADER_BYTES) throw new IOException("File maze terpotong");
+
+            // a single mapping is capped at 2 GB, so larger grids are mapped as 1 GB segments
+            long bytes = channel.size() - HEADER_BYTES;
+            MappedByteBuffer[] segments = new MappedByteBuffer[(int) ((bytes + (1L << SEGMENT_SHIFT) - 1) >>> SEGMENT_SHIFT)];
+            for (int k = 0; k < segments.length; k++) {
+                long offset = (long) k << SEGMENT_SHIFT;
+                segments[k] = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES + offset, Math.min(1L << SEGMENT_SHIFT, bytes - offset));
+            }
+            MazeFile maze = new MazeFile(header, segments);
+            if (bytes < packedBytes((long) maze.rows * maze.cols)) throw new IOException("File maze terpotong");
+            return maze;
+        }
+    }
+
+    public long size() { return (long) rows * cols; }
+
+    public int type(long cell) {
+        long b = cell >>> 2;
+        int packed = segments[(int) (b >>> SEGMENT_SHIFT)].get((int) (b & ((1 << SEGMENT_SHIFT) - 1)));
+        return TYPES[(packed >>> ((int) (cell & 3) << 1)) & 3];
+    }
+
+    public boolean isOpen(long cell) { return type(cell) != MazeGrid.WALL; }
+
+    // Larger grids cannot be unpacked into one byte array; MappedSearch reads them through type() instead.
+    public boolean fitsInMemory() { return size() <= Integer.MAX_VALUE - 8; }
+
+    // Unpacks into the byte-per-cell grid the solvers' inner loops index directly.
+    public MazeGrid toGrid() {
+        if (!fitsInMemory()) throw new IllegalStateException("Maze " + rows + " x " + cols + " terlalu besar untuk dimuat utuh");
+        MazeGrid grid = new MazeGrid(rows, cols, new Random(seed).nextInt());
+        grid.start = grid.index(startRow, startCol);
+        grid.end = grid.index(endRow, endCol);
+        grid.seed = seed;
+        grid.generator = generator;
+        grid.decoration = decoration;
+
+        byte[] cells = grid.cells;
+        int n = cells.length, i = 0;
+        for (MappedByteBuffer segment : segments) {
+            ByteBuffer in = segment.duplicate();
+            while (in.hasRemaining() && i < n) {
+                int packed = in.get();
+                for (int k = 0; k < 4 && i < n; k++, packed >>>= 2) cells[i++] = TYPES[packed & 3];
+            }
+        }
+        return grid;
+    }
+
+    public static void save(MazeGrid grid, File file) throws IOException {
+        long bytes = HEADER_BYTES + packedBytes(grid.size());
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer out = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+            writeHeader(out, grid.rows, grid.cols, grid.row(grid.start), grid.col(grid.start),
+                    grid.row(grid.end), grid.col(grid.end), grid.generator, grid.decoration, grid.seed);
+            byte[] cells = grid.cells;
+            int n = cells.length;
+            for (int i = 0; i < n; i += 4) {
+                int packed = 0;
+                for (int k = 0; k < 4 && i + k < n; k++) packed |= code(cells[i + k]) << (k << 1);
+                out.put((byte) packed);
+            }
+            out.force();
+        }
+    }
+
+    static void writeHeader(ByteBuffer out, int rows, int cols, int startRow, int startCol, int endRow, int endCol,
+                            int generator, int decoration, long seed) {
+        out.putInt(MAGIC).putInt(VERSION).putInt(rows).putInt(cols);
+        out.putInt(startRow).putInt(startCol).putInt(endRow).putInt(endCol);
+        out.putInt(generator).putInt(decoration);
+        out.putLong(seed);
+    }
+
+    static long packedBytes(long cells) {
+        return (cells + 3) >>> 2;
+    }
+
+    static int code(int type) {
+        switch (type) {
+            case MazeGrid.WALL: return 0;
+            case MazeGrid.GRASS: return 1;
+            case MazeGrid.WATER: return 2;
+            default: return 3;
+        }
+    }
+}
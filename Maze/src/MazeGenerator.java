@@ -0,0 +1,7 @@
+import java.util.Random;
+
+public interface MazeGenerator {
+    String getName();
+
+    void carve(MazeGrid grid, Random rand);
+}
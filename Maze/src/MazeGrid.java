@@ -0,0 +1,54 @@
+public class MazeGrid {
+    public static final byte WALL = 0;
+    public static final byte GRASS = 1;
+    public static final byte WATER = 5;
+    public static final byte MUD = 10;
+
+    final int rows, cols;
+    final byte[] cells;
+    int start, end;
+    long seed;
+    // provenance for MazeFile: index into MazeBuilder.GENERATORS (-1 unknown) and which decoration pass ran
+    int generator = -1;
+    int decoration = MazeBuilder.DECORATION_NONE;
+    // bumped by in-place terrain edits so derived structures can tell they are stale
+    int version;
+
+    private final int treeSalt;
+
+    public MazeGrid(int rows, int cols, int treeSalt) {
+        this.rows = rows;
+        this.cols = cols;
+        this.cells = new byte[rows * cols];
+        this.treeSalt = treeSalt;
+    }
+
+    public MazeGrid snapshot() {
+        MazeGrid copy = new MazeGrid(rows, cols, treeSalt);
+        System.arraycopy(cells, 0, copy.cells, 0, cells.length);
+        copy.start = start;
+        copy.end = end;
+        copy.seed = seed;
+        copy.generator = generator;
+        copy.decoration = decoration;
+        return copy;
+    }
+
+    public int size() { return cells.length; }
+
+    public int index(int r, int c) { return r * cols + c; }
+    public int row(int i) { return i / cols; }
+    public int col(int i) { return i % cols; }
+
+    public boolean isValid(int r, int c) {
+        return r >= 0 && r < rows && c >= 0 && c < cols;
+    }
+
+    public int type(int i) { return cells[i]; }
+    public boolean isOpen(int i) { return cells[i] != WALL; }
+
+    public int treeVariant(int i) {
+        int h = (i ^ treeSalt) * 0x9E3779B1;
+        return ((h >>> 16) & 0x7FFF) % 3;
+    }
+}
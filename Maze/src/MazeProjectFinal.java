@@ -1,24 +1,40 @@
-import javax.imageio.ImageIO;
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ComponentAdapter;
 import java.awt.event.ComponentEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
 import java.awt.geom.AffineTransform;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
 import java.io.File;
 import java.io.IOException;
 import javax.sound.sampled.*;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import javax.swing.Timer;
 
 public class MazeProjectFinal extends JFrame {
 
-    private static final int ROWS = 21;
-    private static final int COLS = 31;
+    private static final int DEFAULT_ROWS = 21;
+    private static final int DEFAULT_COLS = 31;
+    private static final int MIN_SIZE = 5;
+    private static final int MAX_SIZE = 8191;
+    private static final String[] SIZE_PRESETS = {
+            "21 x 31", "51 x 75", "101 x 151", "251 x 375", "1001 x 1001", "2049 x 2049", "4097 x 4097"
+    };
+
     private static final int BASE_CELL_SIZE = 40;
+    private static final int OVERVIEW_CELL_PX = 4;
+    private static final int MAX_ANIM_FRAMES = 1000;
 
     private static final int HERO_SIZE = 48;
     private final int WALL_THICKNESS = 10;
@@ -33,23 +49,42 @@ public class MazeProjectFinal extends JFrame {
     private final Color FALLBACK_YOUNG_GRASS = new Color(144, 238, 144);
     private final Color FALLBACK_WATER = new Color(65, 105, 225);
     private final Color FALLBACK_MUD = new Color(101, 67, 33);
+    private final Color OVERVIEW_FOREST = new Color(24, 80, 24);
+    private final Color OVERVIEW_TREASURE = new Color(255, 215, 0);
+    private final Color LAYER_CLEAR = new Color(0, 0, 0, 0);
 
     private final Color SEARCH_COLOR = new Color(255, 215, 0, 100);
     private final Color PATH_BFS = Color.CYAN;
     private final Color PATH_DFS = Color.ORANGE;
     private final Color PATH_DIJKSTRA = Color.MAGENTA;
     private final Color PATH_ASTAR = Color.GREEN;
+    private final Color PATH_BIBFS = new Color(64, 224, 208);
+    private final Color PATH_BIASTAR = new Color(173, 255, 47);
+    private final Color PATH_DIAL = new Color(255, 105, 180);
+    private final Color PATH_JPS = new Color(135, 206, 250);
+    private final Color PATH_LPA = new Color(255, 200, 0);
+    private final Color PATH_HPA = new Color(255, 127, 80);
+    private final Color PATH_ALT = new Color(154, 205, 50);
+    private final Color PATH_FLOW = new Color(0, 191, 255);
+    private final Color PATH_BITBFS = new Color(0, 206, 209);
+    private final Color PATH_PARBFS = new Color(127, 255, 212);
+    private final Color PATH_DELTA = new Color(218, 112, 214);
+
+    private static final int VIEW = -1;
+    private static final int PICK_START = -2;
 
     private MazePanel canvas;
     private JTextArea infoArea;
     private JLabel speedLabel;
+    private JProgressBar progressBar;
+    private JButton btnCancel;
 
-    public MazeProjectFinal() {
+    public MazeProjectFinal(int rows, int cols) {
         setTitle("RPG Maze: Final Fixed (Audio & Crash Fix)");
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         setLayout(new BorderLayout());
 
-        canvas = new MazePanel();
+        canvas = new MazePanel(rows, cols);
         add(canvas, BorderLayout.CENTER);
 
         JPanel rightPanel = new JPanel(new BorderLayout());
@@ -72,6 +107,8 @@ public class MazeProjectFinal extends JFrame {
         infoArea.setBorder(new EmptyBorder(10, 10, 10, 10));
         infoArea.setText("Status: Audio Fixed.\n\nSuara akan berhenti otomatis saat sampai tujuan.\n\nKlik 'Generate Map' untuk mulai.");
 
+        infoArea.append("\n\n" + canvas.getAssetReport());
+
         rightPanel.add(new JScrollPane(infoArea), BorderLayout.CENTER);
         add(rightPanel, BorderLayout.EAST);
 
@@ -101,37 +138,139 @@ public class MazeProjectFinal extends JFrame {
             canvas.updateTimerDelay(currentDelay);
         });
 
+        JLabel lblSize = new JLabel("Ukuran: ");
+        lblSize.setForeground(Color.WHITE);
+
+        JComboBox<String> sizeBox = new JComboBox<>(SIZE_PRESETS);
+        sizeBox.setEditable(true);
+        sizeBox.setSelectedItem(rows + " x " + cols);
+        sizeBox.setPreferredSize(new Dimension(130, 24));
+
+        sizeBox.addActionListener(e -> {
+            if ("comboBoxEdited".equals(e.getActionCommand())) return;
+            int[] size = parseSize(String.valueOf(sizeBox.getSelectedItem()));
+            if (size == null) {
+                JOptionPane.showMessageDialog(this, "Format ukuran: BARIS x KOLOM (contoh 4097 x 4097)");
+                return;
+            }
+            canvas.setMazeSize(size[0], size[1]);
+            regenerate("Ukuran hutan: " + size[0] + " x " + size[1] + ".\nMedan: Rumput(1), Air(5), Lumpur(10)");
+        });
+
+        JLabel lblGenerator = new JLabel("Generator: ");
+        lblGenerator.setForeground(Color.WHITE);
+
+        JComboBox<String> generatorBox = new JComboBox<>();
+        for (MazeGenerator generator : MazeBuilder.GENERATORS) generatorBox.addItem(generator.getName());
+        generatorBox.addActionListener(e -> {
+            canvas.setGenerator(MazeBuilder.GENERATORS[generatorBox.getSelectedIndex()]);
+            regenerate("Hutan Maze Random (" + generatorBox.getSelectedItem() + ").\nMedan: Rumput(1), Air(5), Lumpur(10)");
+        });
+
         sliderPanel.add(lblSpeedIcon);
         sliderPanel.add(speedSlider);
         sliderPanel.add(speedLabel);
+        sliderPanel.add(lblSize);
+        sliderPanel.add(sizeBox);
+        sliderPanel.add(lblGenerator);
+        sliderPanel.add(generatorBox);
+
+        progressBar = new JProgressBar();
+        progressBar.setStringPainted(true);
+        progressBar.setString("Siap");
+        progressBar.setPreferredSize(new Dimension(180, 20));
+
+        btnCancel = styleButton("Batal", new Color(120, 40, 40), Color.WHITE);
+        btnCancel.setEnabled(false);
+        btnCancel.addActionListener(e -> {
+            canvas.cancelSolve();
+            infoArea.append("\n\nPencarian dibatalkan.");
+        });
 
-        JPanel buttonPanel = new JPanel(new GridLayout(1, 5, 8, 8));
+        JButton btnSave = styleButton("Simpan", new Color(60, 90, 60), Color.WHITE);
+        JButton btnLoad = styleButton("Muat", new Color(60, 90, 60), Color.WHITE);
+        btnSave.addActionListener(e -> saveMaze());
+        btnLoad.addActionListener(e -> loadMaze());
+
+        JCheckBox junctionBox = new JCheckBox("Graf Simpang");
+        junctionBox.setForeground(Color.WHITE);
+        junctionBox.setOpaque(false);
+        junctionBox.setToolTipText("BFS, Dijkstra dan A* mencari di graf persimpangan, lorong diringkas jadi satu sisi");
+        junctionBox.addActionListener(e -> canvas.setUseJunctions(junctionBox.isSelected()));
+
+        JPanel toolPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
+        toolPanel.setBackground(new Color(34, 49, 29));
+        JLabel lblTool = new JLabel("Alat: ");
+        lblTool.setForeground(Color.WHITE);
+
+        String[] toolNames = {"Lihat", "Pilih Start (Flow)", "Dinding", "Rumput", "Air", "Lumpur"};
+        int[] toolTypes = {VIEW, PICK_START, MazeGrid.WALL, MazeGrid.GRASS, MazeGrid.WATER, MazeGrid.MUD};
+        JComboBox<String> toolBox = new JComboBox<>(toolNames);
+        toolBox.addActionListener(e -> canvas.setEditTool(toolTypes[toolBox.getSelectedIndex()]));
+
+        toolPanel.add(lblTool);
+        toolPanel.add(toolBox);
+        toolPanel.add(junctionBox);
+        toolPanel.add(btnSave);
+        toolPanel.add(btnLoad);
+        toolPanel.add(progressBar);
+        toolPanel.add(btnCancel);
+
+        JPanel buttonPanel = new JPanel(new GridLayout(2, 0, 8, 8));
         buttonPanel.setBackground(new Color(34, 49, 29));
-        buttonPanel.setMaximumSize(new Dimension(Short.MAX_VALUE, 50));
+        buttonPanel.setMaximumSize(new Dimension(Short.MAX_VALUE, 100));
 
         JButton btnGen = styleButton("Generate Map", new Color(80, 80, 80), Color.WHITE);
         JButton btnBFS = styleButton("BFS", new Color(0, 100, 100), Color.WHITE);
         JButton btnDFS = styleButton("DFS", new Color(139, 69, 19), Color.WHITE);
         JButton btnDijkstra = styleButton("Dijkstra", new Color(128, 0, 128), Color.WHITE);
         JButton btnAStar = styleButton("A* (Smart)", new Color(0, 100, 0), Color.WHITE);
-
-        btnGen.addActionListener(e -> {
-            updateInfo("GENERATE MAP", "Abu-Abu", "Hutan Maze Random.\nMedan: Rumput(1), Air(5), Lumpur(10)");
-            canvas.generateMaze();
-        });
+        JButton btnBiBFS = styleButton("Bi-BFS", new Color(0, 128, 128), Color.WHITE);
+        JButton btnBiAStar = styleButton("Bi-A*", new Color(85, 107, 47), Color.WHITE);
+        JButton btnDial = styleButton("Dial", new Color(199, 21, 133), Color.WHITE);
+        JButton btnJPS = styleButton("JPS", new Color(70, 130, 180), Color.WHITE);
+        JButton btnBitBFS = styleButton("Bit-BFS", new Color(0, 139, 139), Color.WHITE);
+        JButton btnParBFS = styleButton("BFS Paralel", new Color(46, 139, 87), Color.WHITE);
+        JButton btnDelta = styleButton("Delta-Stepping", new Color(153, 50, 204), Color.WHITE);
+        JButton btnALT = styleButton("ALT", new Color(107, 142, 35), Color.WHITE);
+        JButton btnHPA = styleButton("HPA*", new Color(205, 92, 52), Color.WHITE);
+        JButton btnRace = styleButton("Race", new Color(178, 34, 34), Color.WHITE);
+
+        btnGen.addActionListener(e -> regenerate("Hutan Maze Random.\nMedan: Rumput(1), Air(5), Lumpur(10)"));
 
         btnBFS.addActionListener(e -> { updateInfo("BFS", "CYAN", "Mencari jalan terpendek."); canvas.solveBFS(); });
         btnDFS.addActionListener(e -> { updateInfo("DFS", "ORANYE", "Eksplorasi nekat."); canvas.solveDFS(); });
         btnDijkstra.addActionListener(e -> { updateInfo("DIJKSTRA", "MAGENTA", "Mencari jalan termurah."); canvas.solveDijkstra(); });
         btnAStar.addActionListener(e -> { updateInfo("A*", "HIJAU", "Cerdas & Cepat."); canvas.solveAStar(); });
+        btnBiBFS.addActionListener(e -> { updateInfo("BFS DUA ARAH", "TOSCA", "Mencari dari awal dan dari harta sekaligus."); canvas.solveBidirectionalBFS(); });
+        btnBiAStar.addActionListener(e -> { updateInfo("A* DUA ARAH", "HIJAU MUDA", "A* dari dua ujung, bertemu di tengah."); canvas.solveBidirectionalAStar(); });
+        btnDial.addActionListener(e -> { updateInfo("DIAL (BUCKET)", "MERAH MUDA", "Dijkstra dengan antrian ember untuk bobot 1/5/10."); canvas.solveDial(); });
+        btnJPS.addActionListener(e -> { updateInfo("JUMP POINT SEARCH", "BIRU LANGIT", "Melompati lorong seragam, tetap jalur termurah."); canvas.solveJPS(); });
+        btnBitBFS.addActionListener(e -> { updateInfo("BFS BIT-PARALEL", "TOSCA TUA", "BFS yang menggeser 64 sel sekaligus dalam satu long."); canvas.solveBitBFS(); });
+        btnParBFS.addActionListener(e -> { updateInfo("BFS PARALEL", "AKUAMARIN", "Setiap lapisan frontier dibagi ke semua inti prosesor."); canvas.solveParallelBFS(); });
+        btnDelta.addActionListener(e -> { updateInfo("DELTA-STEPPING", "ANGGREK", "Dijkstra paralel: ember selebar delta direlaksasi bersamaan."); canvas.solveDeltaStepping(); });
+        btnALT.addActionListener(e -> { updateInfo("A* + LANDMARK (ALT)", "HIJAU KUNING", "A* dengan batas bawah dari jarak ke landmark di tepi hutan."); canvas.solveALT(); });
+        btnHPA.addActionListener(e -> { updateInfo("HPA* (HIERARKIS)", "KORAL", "Mencari di graf klaster 16x16, lalu memperhalus jalurnya."); canvas.solveHPA(); });
+        btnRace.addActionListener(e -> { updateInfo("RACE", "-", "Semua algoritma berlomba bersamaan pada salinan peta yang sama..."); canvas.raceSolvers(); });
 
         buttonPanel.add(btnGen);
         buttonPanel.add(btnBFS);
         buttonPanel.add(btnDFS);
         buttonPanel.add(btnDijkstra);
         buttonPanel.add(btnAStar);
+        buttonPanel.add(btnBiBFS);
+        buttonPanel.add(btnBiAStar);
+        buttonPanel.add(btnDial);
+        buttonPanel.add(btnJPS);
+        buttonPanel.add(btnBitBFS);
+        buttonPanel.add(btnParBFS);
+        buttonPanel.add(btnDelta);
+        buttonPanel.add(btnALT);
+        buttonPanel.add(btnHPA);
+        buttonPanel.add(btnRace);
 
         bottomContainer.add(sliderPanel);
+        bottomContainer.add(toolPanel);
         bottomContainer.add(Box.createRigidArea(new Dimension(0, 5)));
         bottomContainer.add(buttonPanel);
 
@@ -154,11 +293,127 @@ public class MazeProjectFinal extends JFrame {
         infoArea.setCaretPosition(0);
     }
 
-    public void appendResult(int steps, int cost) {
+    private void regenerate(String desc) {
+        updateInfo("GENERATE MAP", "Abu-Abu", desc);
+        canvas.generateMaze();
+    }
+
+    public void appendGenerationReport(String report) {
+        infoArea.append("\n\n" + report);
+    }
+
+    private void saveMaze() {
+        JFileChooser chooser = new JFileChooser(".");
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        try {
+            infoArea.append("\n\n" + canvas.saveMaze(chooser.getSelectedFile()));
+        } catch (IOException e) {
+            JOptionPane.showMessageDialog(this, "Gagal menyimpan: " + e.getMessage());
+        }
+    }
+
+    private void loadMaze() {
+        JFileChooser chooser = new JFileChooser(".");
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        updateInfo("MUAT PETA", "Abu-Abu", "Memuat " + chooser.getSelectedFile().getName() + "...");
+        canvas.loadMaze(chooser.getSelectedFile());
+    }
+
+    public void reportLoad(String report) {
+        updateInfo("MUAT PETA", "Abu-Abu", report);
+    }
+
+    public void appendResult(int steps, int cost, int expanded, int peakQueue) {
         infoArea.append("\n\n--------------------------\n");
         infoArea.append("LAPORAN MISI:\n");
         infoArea.append("- Jarak: " + steps + "\n");
         infoArea.append("- Energi: " + cost + "\n");
+        infoArea.append("- Sel diperiksa: " + expanded + "\n");
+        infoArea.append("- Antrian puncak: " + peakQueue + "\n");
+        infoArea.setCaretPosition(infoArea.getDocument().getLength());
+    }
+
+    private void updateProgress(int expanded, int total, boolean running) {
+        progressBar.setIndeterminate(false);
+        progressBar.setMaximum(Math.max(1, total));
+        progressBar.setValue(running ? Math.min(expanded, total) : progressBar.getMaximum());
+        progressBar.setString((running ? "Mencari: " : "Selesai: ") + expanded + " sel");
+        btnCancel.setEnabled(running);
+    }
+
+    // Generation, loading and the race have no cell count to show, only the phase they are in.
+    private void showBusy(String phase) {
+        progressBar.setIndeterminate(true);
+        progressBar.setString(phase);
+        btnCancel.setEnabled(true);
+    }
+
+    private void finishBusy(String status) {
+        progressBar.setIndeterminate(false);
+        progressBar.setValue(progressBar.getMaximum());
+        progressBar.setString(status);
+        btnCancel.setEnabled(false);
+    }
+
+    public void reportReplan(int steps, int cost, int expanded, boolean full, long nanos) {
+        updateInfo("LPA* (EDIT MEDAN)", "EMAS", full ? "Rencana awal dihitung penuh."
+                : "Hanya bagian yang terpengaruh suntingan yang dihitung ulang.");
+        if (steps == 0) infoArea.append("\n\nTidak ada rute ke Harta Karun!");
+        else appendResult(steps, cost, expanded, 0);
+        infoArea.append(String.format("- Waktu: %.2f ms\n", nanos / 1e6));
+    }
+
+    public void appendHierarchyReport(long buildNanos, long queryNanos, int nodes, int edges) {
+        infoArea.append("\n\n--------------------------\n");
+        infoArea.append("ABSTRAKSI HPA*:\n");
+        infoArea.append("- Simpul / sisi: " + nodes + " / " + edges + "\n");
+        infoArea.append(buildNanos < 0 ? "- Bangun: (pakai ulang)\n" : String.format("- Bangun: %.1f ms\n", buildNanos / 1e6));
+        infoArea.append(String.format("- Kueri: %.2f ms\n", queryNanos / 1e6));
+        infoArea.setCaretPosition(infoArea.getDocument().getLength());
+    }
+
+    public void reportUnreachable(int regions) {
+        infoArea.append("\n\n--------------------------\n");
+        infoArea.append("Start dan Harta Karun ada di wilayah terpisah (" + regions + " wilayah).\n");
+        infoArea.append("Ditolak tanpa pencarian.\n");
+        infoArea.setCaretPosition(infoArea.getDocument().getLength());
+    }
+
+    public void appendJunctionReport(long buildNanos, long queryNanos, int alive, int nodes, int edges) {
+        infoArea.append("\n\n--------------------------\n");
+        infoArea.append("GRAF SIMPANG:\n");
+        infoArea.append("- Sel tersisa (tanpa jalan buntu): " + alive + "\n");
+        infoArea.append("- Simpul / sisi: " + nodes + " / " + edges + "\n");
+        infoArea.append(buildNanos < 0 ? "- Bangun: (pakai ulang)\n" : String.format("- Bangun: %.1f ms\n", buildNanos / 1e6));
+        infoArea.append(String.format("- Kueri: %.2f ms\n", queryNanos / 1e6));
+        infoArea.setCaretPosition(infoArea.getDocument().getLength());
+    }
+
+    public void reportFlowPath(int steps, int cost, long buildNanos, long lookupNanos) {
+        updateInfo("FLOW FIELD", "BIRU TERANG", buildNanos < 0
+                ? "Medan arah dipakai ulang: jalur dibaca tanpa pencarian baru."
+                : "Satu Dijkstra terbalik dari harta karun mengisi arah langkah setiap sel.");
+        if (steps == 0) {
+            infoArea.append("\n\nTidak ada rute ke Harta Karun!");
+            return;
+        }
+        appendResult(steps, cost, 0, 0);
+        if (buildNanos >= 0) infoArea.append(String.format("- Bangun medan: %.1f ms\n", buildNanos / 1e6));
+        infoArea.append(String.format("- Baca jalur: %.3f ms\n", lookupNanos / 1e6));
+    }
+
+    public void appendLandmarkReport(int count, long buildNanos, long bytes) {
+        infoArea.append("\n\n--------------------------\n");
+        infoArea.append("LANDMARK ALT:\n");
+        infoArea.append("- Landmark: " + count + String.format(" (tabel %.1f MB)\n", bytes / 1048576.0));
+        infoArea.append(String.format("- Bangun: %.1f ms\n", buildNanos / 1e6));
+        infoArea.setCaretPosition(infoArea.getDocument().getLength());
+    }
+
+    public void appendRaceResults(List<SolverRace.Entry> entries) {
+        infoArea.append("\n\n--------------------------\n");
+        infoArea.append("HASIL BALAPAN:\n");
+        for (SolverRace.Entry entry : entries) infoArea.append("- " + entry + "\n");
         infoArea.setCaretPosition(infoArea.getDocument().getLength());
     }
 
@@ -171,32 +426,76 @@ public class MazeProjectFinal extends JFrame {
         return btn;
     }
 
-    public static void main(String[] args) {
-        SwingUtilities.invokeLater(MazeProjectFinal::new);
+    static int[] parseSize(String text) {
+        String[] parts = text.trim().split("\\s*[xX,\\s]\\s*");
+        if (parts.length != 2) return null;
+        try {
+            return new int[]{normalizeSize(Integer.parseInt(parts[0])), normalizeSize(Integer.parseInt(parts[1]))};
+        } catch (NumberFormatException e) {
+            return null;
+        }
     }
 
-    static class Cell {
-        int r, c;
-        int type = 0;
-        int treeVariant = 0;
-        boolean visited = false;
-        public Cell(int r, int c) { this.r = r; this.c = c; }
+    static int normalizeSize(int size) {
+        size = Math.max(MIN_SIZE, Math.min(MAX_SIZE, size));
+        return (size % 2 == 0) ? size + 1 : size;
     }
 
-    static class Node {
-        Cell cell; int cost;
-        public Node(Cell cell, int cost) { this.cell = cell; this.cost = cost; }
+    public static void main(String[] args) {
+        int[] size = {DEFAULT_ROWS, DEFAULT_COLS};
+        if (args.length == 1) size = parseSize(args[0]);
+        else if (args.length >= 2) size = parseSize(args[0] + "x" + args[1]);
+        if (size == null) {
+            System.err.println("Pemakaian: java MazeProjectFinal [BARISxKOLOM | BARIS KOLOM]");
+            return;
+        }
+        int[] mazeSize = size;
+        SwingUtilities.invokeLater(() -> new MazeProjectFinal(mazeSize[0], mazeSize[1]));
     }
 
     class MazePanel extends JPanel {
-        private Cell[][] grid;
-        private Cell startCell, endCell;
-
-        private List<Cell> searchHistory;
-        private List<Cell> pathSolution;
+        private int rows, cols;
+        // size for the next generate; rows and cols follow the grid on screen until it is replaced
+        private int nextRows, nextCols;
+        private MazeGrid grid;
+        private final GridSearch search = new GridSearch();
+        private MazeGenerator generator = MazeBuilder.GENERATORS[0];
+        private int openCells;
+
+        private final ExecutorService solverExecutor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "maze-solver");
+            thread.setDaemon(true);
+            return thread;
+        });
+        private Future<?> pendingSolve;
+        private SwingWorker<?, ?> raceWorker;
+        private int solveId = 0;
+
+        private int editTool = VIEW;
+        private int strokeType;
+        private boolean editing = false;
+        private boolean planning = false;
+        private int[] editedCells = new int[16];
+        private int editedCount = 0;
+        // touched only from tasks on solverExecutor
+        private LpaStar planner;
+        private ClusterGraph hierarchy;
+        private FlowField flowField;
+        private JunctionGraph junctions;
+        private ComponentLabels components;
+        private boolean useJunctions;
+        private Landmarks landmarks;
+        private volatile boolean plannerStale = false;
+
+        private int[] searchHistory;
+        private int historyCount = 0;
+        private boolean searchDone = false;
+        private int[] pathSolution;
         private Color currentPathColor = Color.WHITE;
 
         private int animIndex = 0;
+        private int expandedCount = 0;
+        private int peakQueueSize = 0;
         private boolean showSolution = false;
         private Timer timer;
         private Clip audioClip;
@@ -211,12 +510,31 @@ public class MazeProjectFinal extends JFrame {
         private Image[] imgTrees = new Image[3];
 
         private boolean imagesLoaded = false;
-
-        public MazePanel() {
+        private final AssetLoader assets = new AssetLoader();
+
+        private BufferedImage overviewImage;
+        private BufferedImage terrainLayer, canopyLayer;
+        private MazeGrid layersGrid;
+        private double layerScale;
+        private BufferedImage overlayImage;
+        private int overlayFilled = 0;
+        private boolean overlayShowsPath = false;
+        private int dirtyMinRow = Integer.MAX_VALUE, dirtyMinCol = Integer.MAX_VALUE;
+        private int dirtyMaxRow = -1, dirtyMaxCol = -1;
+        private BufferedImage pathLayer;
+        private int[] pathLayerPath;
+        private int pathLayerDrawn;
+
+        public MazePanel(int rows, int cols) {
+            this.nextRows = rows;
+            this.nextCols = cols;
             setBackground(WALL_COLOR_FALLBACK);
             loadAndResizeImages();
-            initGrid();
-            generateMaze();
+            // the frame's progress bar does not exist yet, so the first maze is built here rather than in the background
+            long seed = new Random().nextLong();
+            MazeGrid first = MazeBuilder.build(rows, cols, generator, new Random(seed));
+            first.seed = seed;
+            setGrid(first, countOpen(first));
 
             addComponentListener(new ComponentAdapter() {
                 @Override
@@ -224,6 +542,152 @@ public class MazeProjectFinal extends JFrame {
                     repaint();
                 }
             });
+
+            MouseAdapter editor = new MouseAdapter() {
+                @Override
+                public void mousePressed(MouseEvent e) {
+                    beginEdit(cellAt(e.getX(), e.getY()));
+                }
+
+                @Override
+                public void mouseDragged(MouseEvent e) {
+                    if (editing) applyEdit(cellAt(e.getX(), e.getY()));
+                }
+
+                @Override
+                public void mouseReleased(MouseEvent e) {
+                    finishEdit();
+                }
+            };
+            addMouseListener(editor);
+            addMouseMotionListener(editor);
+        }
+
+        public void setEditTool(int type) {
+            editTool = type;
+            setCursor(Cursor.getPredefinedCursor(type == VIEW ? Cursor.DEFAULT_CURSOR
+                    : type == PICK_START ? Cursor.HAND_CURSOR : Cursor.CROSSHAIR_CURSOR));
+        }
+
+        private void beginEdit(int cell) {
+            if (editTool == PICK_START && cell >= 0 && !planning) pickStart(cell);
+            if (editTool < 0 || cell < 0 || planning) return;
+            strokeType = editTool == MazeGrid.WALL && !grid.isOpen(cell) ? MazeGrid.GRASS : editTool;
+            editing = true;
+            editedCount = 0;
+            applyEdit(cell);
+        }
+
+        private void applyEdit(int cell) {
+            if (cell < 0 || cell == grid.start || cell == grid.end || grid.cells[cell] == strokeType) return;
+            if (editedCount == 0) stopAnimation();
+            if (grid.isOpen(cell) != (strokeType != MazeGrid.WALL)) openCells += strokeType == MazeGrid.WALL ? -1 : 1;
+            grid.cells[cell] = (byte) strokeType;
+            grid.version++;
+            if (editedCount == editedCells.length) editedCells = Arrays.copyOf(editedCells, editedCount * 2);
+            editedCells[editedCount++] = cell;
+
+            if (overviewImage != null) {
+                ((DataBufferInt) overviewImage.getRaster().getDataBuffer()).getData()[cell] = overviewRgb(strokeType);
+            }
+            repaintCell(cell);
+        }
+
+        private void finishEdit() {
+            if (!editing) return;
+            editing = false;
+            if (editedCount > 0) replan(Arrays.copyOf(editedCells, editedCount));
+        }
+
+        // LPA* keeps its g/rhs tables between strokes, so each replan only repairs what the edited cells disturbed.
+        private void replan(int[] changed) {
+            int id = ++solveId;
+            MazeGrid target = grid;
+            planning = true;
+            pendingSolve = solverExecutor.submit(() -> {
+                long t0 = System.nanoTime();
+                boolean full = planner == null || plannerStale || !planner.matches(target);
+                if (full) {
+                    planner = new LpaStar(target);
+                    plannerStale = false;
+                } else {
+                    for (int cell : changed) planner.cellChanged(cell);
+                }
+                planner.computeShortestPath();
+                int[] path = planner.path();
+                int expanded = planner.getExpanded();
+                long nanos = System.nanoTime() - t0;
+                SwingUtilities.invokeLater(() -> showReplan(id, path, expanded, full, nanos));
+            });
+        }
+
+        private void showReplan(int id, int[] path, int expanded, boolean full, long nanos) {
+            if (!showInstantPath(id, path, PATH_LPA)) return;
+            reportReplan(path.length, pathCost(path), expanded, full, nanos);
+        }
+
+        private void pickStart(int cell) {
+            if (!grid.isOpen(cell) || cell == grid.end) return;
+            stopAnimation();
+            grid.start = cell;
+            int id = ++solveId;
+            MazeGrid target = grid;
+            planning = true;
+            pendingSolve = solverExecutor.submit(() -> {
+                boolean rebuilt = flowField == null || !flowField.matches(target);
+                if (rebuilt) flowField = new FlowField(target);
+                FlowField field = flowField;
+                long t0 = System.nanoTime();
+                int[] path = field.path(cell);
+                long lookupNanos = System.nanoTime() - t0;
+                SwingUtilities.invokeLater(() -> {
+                    if (!showInstantPath(id, path, PATH_FLOW)) return;
+                    reportFlowPath(path.length, pathCost(path), rebuilt ? field.getBuildNanos() : -1, lookupNanos);
+                });
+            });
+        }
+
+        private int pathCost(int[] path) {
+            int cost = 0;
+            for (int cell : path) cost += grid.type(cell);
+            return cost;
+        }
+
+        // Shows a finished path at once, without the exploration animation.
+        private boolean showInstantPath(int id, int[] path, Color color) {
+            if (id != solveId) return false;
+            planning = false;
+            pendingSolve = null;
+            currentPathColor = color;
+            searchHistory = new int[0];
+            historyCount = 0;
+            searchDone = true;
+            overlayImage = null;
+            showSolution = true;
+            pathSolution = path.length > 0 ? path : null;
+            animIndex = Math.max(0, path.length - 1);
+            updateOverlay();
+            repaint();
+            return true;
+        }
+
+        private double viewScale() {
+            return Math.min((double) getWidth() / (grid.cols * BASE_CELL_SIZE), (double) getHeight() / (grid.rows * BASE_CELL_SIZE));
+        }
+
+        private int viewOriginX(double scale) {
+            return (getWidth() - (int) (grid.cols * BASE_CELL_SIZE * scale)) / 2;
+        }
+
+        private int viewOriginY(double scale) {
+            return (getHeight() - (int) (grid.rows * BASE_CELL_SIZE * scale)) / 2;
+        }
+
+        private int cellAt(int x, int y) {
+            double scale = viewScale();
+            int c = (int) Math.floor((x - viewOriginX(scale)) / (BASE_CELL_SIZE * scale));
+            int r = (int) Math.floor((y - viewOriginY(scale)) / (BASE_CELL_SIZE * scale));
+            return grid.isValid(r, c) ? grid.index(r, c) : -1;
         }
 
         private void playSound(String filename, boolean loop) {
@@ -257,32 +721,32 @@ public class MazeProjectFinal extends JFrame {
                 int treeW = (int)(BASE_CELL_SIZE * TREE_SCALE_WIDTH);
                 int treeH = (int)(BASE_CELL_SIZE * TREE_SCALE_HEIGHT);
 
-                imgKnightUp = loadSmart("knight up", HERO_SIZE, HERO_SIZE);
-                imgKnightDown = loadSmart("knight down", HERO_SIZE, HERO_SIZE);
-                imgKnightLeft = loadSmart("knight left", HERO_SIZE, HERO_SIZE);
-                imgKnightRight = loadSmart("knight right", HERO_SIZE, HERO_SIZE);
+                imgKnightUp = assets.load("knight up", HERO_SIZE, HERO_SIZE);
+                imgKnightDown = assets.load("knight down", HERO_SIZE, HERO_SIZE);
+                imgKnightLeft = assets.load("knight left", HERO_SIZE, HERO_SIZE);
+                imgKnightRight = assets.load("knight right", HERO_SIZE, HERO_SIZE);
 
-                imgTreasure = loadSmart("harta", BASE_CELL_SIZE, BASE_CELL_SIZE);
+                imgTreasure = assets.load("harta", BASE_CELL_SIZE, BASE_CELL_SIZE);
 
-                imgKnightWin = loadSmart("knight win", 220, 220);
+                imgKnightWin = assets.load("knight win", 220, 220);
 
-                imgGrassPath = loadSmart("rumput", BASE_CELL_SIZE, BASE_CELL_SIZE);
-                imgGrassForest = loadSmart("rumput muda", BASE_CELL_SIZE, BASE_CELL_SIZE);
+                imgGrassPath = assets.load("rumput", BASE_CELL_SIZE, BASE_CELL_SIZE);
+                imgGrassForest = assets.load("rumput muda", BASE_CELL_SIZE, BASE_CELL_SIZE);
 
-                imgWater = loadSmart("air", BASE_CELL_SIZE, BASE_CELL_SIZE);
-                imgMud = loadSmart("lumpur", BASE_CELL_SIZE, BASE_CELL_SIZE);
+                imgWater = assets.load("air", BASE_CELL_SIZE, BASE_CELL_SIZE);
+                imgMud = assets.load("lumpur", BASE_CELL_SIZE, BASE_CELL_SIZE);
 
-                imgTrees[0] = loadSmart("pohon 1", treeW, treeH);
-                imgTrees[1] = loadSmart("pohon 2", treeW, treeH);
-                imgTrees[2] = loadSmart("pohon 3", treeW, treeH);
+                imgTrees[0] = assets.load("pohon 1", treeW, treeH);
+                imgTrees[1] = assets.load("pohon 2", treeW, treeH);
+                imgTrees[2] = assets.load("pohon 3", treeW, treeH);
 
-                File fWall = findFileSmart("dinding pipih");
+                File fWall = assets.find("dinding pipih");
                 if (fWall != null) {
-                    BufferedImage biWall = ImageIO.read(fWall);
-                    imgWallH = biWall.getScaledInstance(BASE_CELL_SIZE, WALL_THICKNESS, Image.SCALE_SMOOTH);
+                    BufferedImage biWall = assets.decode(fWall, BASE_CELL_SIZE, WALL_THICKNESS);
+                    imgWallH = assets.scale(biWall, BASE_CELL_SIZE, WALL_THICKNESS);
                     BufferedImage rotatedWall = rotateImage(biWall, 90);
-                    imgWallV = rotatedWall.getScaledInstance(WALL_THICKNESS, BASE_CELL_SIZE, Image.SCALE_SMOOTH);
-                    imgWallCorner = biWall.getScaledInstance(WALL_THICKNESS, WALL_THICKNESS, Image.SCALE_SMOOTH);
+                    imgWallV = assets.scale(rotatedWall, WALL_THICKNESS, BASE_CELL_SIZE);
+                    imgWallCorner = assets.scale(biWall, WALL_THICKNESS, WALL_THICKNESS);
                 }
                 imagesLoaded = true;
             } catch (Exception e) {
@@ -290,25 +754,6 @@ public class MazeProjectFinal extends JFrame {
             }
         }
 
-        private File findFileSmart(String baseName) {
-            File f = new File(baseName + ".png");
-            if (f.exists()) return f;
-            f = new File(baseName + ".jpg");
-            if (f.exists()) return f;
-            f = new File(baseName + ".jpeg");
-            if (f.exists()) return f;
-            return null;
-        }
-
-        private Image loadSmart(String baseName, int w, int h) {
-            File f = findFileSmart(baseName);
-            if (f == null) return new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
-            try {
-                BufferedImage original = ImageIO.read(f);
-                return original.getScaledInstance(w, h, Image.SCALE_SMOOTH);
-            } catch (IOException e) { return null; }
-        }
-
         public BufferedImage rotateImage(BufferedImage img, double angle) {
             double rads = Math.toRadians(angle);
             double sin = Math.abs(Math.sin(rads)), cos = Math.abs(Math.cos(rads));
@@ -331,285 +776,418 @@ public class MazeProjectFinal extends JFrame {
             if (timer != null) timer.setDelay(newDelay);
         }
 
-        private void initGrid() {
-            grid = new Cell[ROWS][COLS];
-            Random rTree = new Random();
-            for (int r = 0; r < ROWS; r++) {
-                for (int c = 0; c < COLS; c++) {
-                    grid[r][c] = new Cell(r, c);
-                    grid[r][c].treeVariant = rTree.nextInt(3);
-                }
-            }
-            startCell = grid[1][1];
-            endCell = grid[ROWS - 2][COLS - 2];
+        public void setMazeSize(int rows, int cols) {
+            this.nextRows = rows;
+            this.nextCols = cols;
         }
 
+        public void setGenerator(MazeGenerator generator) {
+            this.generator = generator;
+        }
+
+        // Carving and decorating tens of millions of cells takes seconds, so both run on the solver thread and
+        // the old maze stays on screen until the new one is swapped in. Cancel is seen between the two phases.
         public void generateMaze() {
             stopAnimation();
-            initGrid();
-            ArrayList<Cell> frontier = new ArrayList<>();
-            Random rand = new Random();
-            startCell.type = 1;
-            addFrontier(startCell, frontier);
-
-            while (!frontier.isEmpty()) {
-                Cell current = frontier.remove(rand.nextInt(frontier.size()));
-                List<Cell> pathNeighbors = getPathNeighbors(current);
-                if (!pathNeighbors.isEmpty()) {
-                    Cell neighbor = pathNeighbors.get(rand.nextInt(pathNeighbors.size()));
-                    connect(current, neighbor);
-                }
-                addFrontier(current, frontier);
-            }
-            createLoops();
-            assignWeights();
-            endCell.type = 1;
+            int id = solveId;
+            int r = nextRows, c = nextCols;
+            MazeGenerator gen = generator;
+            showBusy("Mengukir lorong...");
+            pendingSolve = solverExecutor.submit(() -> {
+                long seed = new Random().nextLong();
+                Random rand = new Random(seed);
+                MazeGrid fresh = MazeBuilder.newGrid(r, c, rand);
+                fresh.seed = seed;
+
+                long t0 = System.nanoTime();
+                gen.carve(fresh, rand);
+                long carveNanos = System.nanoTime() - t0;
+                fresh.generator = MazeBuilder.generatorId(gen);
+
+                GridSearch.checkInterrupted();
+                SwingUtilities.invokeLater(() -> { if (id == solveId) showBusy("Menaburi medan..."); });
+                MazeBuilder.decorate(fresh, rand);
+                int open = countOpen(fresh);
+                SwingUtilities.invokeLater(() -> {
+                    if (id != solveId) return;
+                    pendingSolve = null;
+                    setGrid(fresh, open);
+                    finishBusy("Peta siap");
+                    appendGenerationReport(MazeBuilder.formatRate(gen.getName(), fresh.size(), carveNanos));
+                });
+            });
+        }
+
+        private int countOpen(MazeGrid g) {
+            int open = 0;
+            for (int i = 0; i < g.size(); i++) if (g.isOpen(i)) open++;
+            return open;
+        }
+
+        private void setGrid(MazeGrid fresh, int open) {
+            grid = fresh;
+            rows = fresh.rows;
+            cols = fresh.cols;
+            overviewImage = null;
+            invalidateLayers();
+            openCells = open;
+            // matches() would reject the old structures anyway; dropping them lets the old grid be collected
+            solverExecutor.submit(() -> {
+                planner = null;
+                hierarchy = null;
+                flowField = null;
+                junctions = null;
+                components = null;
+                landmarks = null;
+            });
             repaint();
         }
 
-        private void createLoops() {
-            Random rand = new Random();
-            for (int r = 1; r < ROWS - 1; r++) {
-                for (int c = 1; c < COLS - 1; c++) {
-                    if (grid[r][c].type == 0) {
-                        if (rand.nextInt(100) < 15) grid[r][c].type = 1;
-                    }
-                }
-            }
+        public String saveMaze(File file) throws IOException {
+            long t0 = System.nanoTime();
+            MazeFile.save(grid, file);
+            return String.format("Disimpan ke %s (%d KB) dalam %d ms.", file.getName(),
+                    file.length() / 1024, (System.nanoTime() - t0) / 1_000_000);
         }
 
-        private void assignWeights() {
-            Random rand = new Random();
-            for (int r = 0; r < ROWS; r++) {
-                for (int c = 0; c < COLS; c++) {
-                    if (grid[r][c].type != 0 && grid[r][c] != startCell && grid[r][c] != endCell) {
-                        int chance = rand.nextInt(100);
-                        if (chance < 60) grid[r][c].type = 1;
-                        else if (chance < 85) grid[r][c].type = 5;
-                        else grid[r][c].type = 10;
-                    }
+        // Same flow as generateMaze: map and unpack on the solver thread, swap the grid in on the EDT.
+        public void loadMaze(File file) {
+            stopAnimation();
+            int id = solveId;
+            showBusy("Memetakan file...");
+            pendingSolve = solverExecutor.submit(() -> {
+                try {
+                    long t0 = System.nanoTime();
+                    MazeFile mapped = MazeFile.map(file);
+                    long mapNanos = System.nanoTime() - t0;
+                    SwingUtilities.invokeLater(() -> { if (id == solveId) showBusy("Membuka kemasan..."); });
+                    MazeGrid fresh = mapped.toGrid();
+                    long unpackNanos = System.nanoTime() - t0 - mapNanos;
+                    GridSearch.checkInterrupted();
+                    int open = countOpen(fresh);
+                    String report = String.format("Dimuat dari %s: %d x %d, %s, seed %d.\nMap %.1f ms, buka kemasan %.1f ms.", file.getName(),
+                            fresh.rows, fresh.cols, MazeBuilder.describe(fresh.generator, fresh.decoration), fresh.seed, mapNanos / 1e6, unpackNanos / 1e6);
+                    SwingUtilities.invokeLater(() -> {
+                        if (id != solveId) return;
+                        pendingSolve = null;
+                        setGrid(fresh, open);
+                        finishBusy("Peta dimuat");
+                        reportLoad(report);
+                    });
+                } catch (IOException | RuntimeException e) {
+                    // a cancelled load lands here too (interrupted channel or CancellationException), with a stale id
+                    SwingUtilities.invokeLater(() -> {
+                        if (id != solveId) return;
+                        pendingSolve = null;
+                        finishBusy("Gagal memuat");
+                        JOptionPane.showMessageDialog(this, "Gagal memuat: " + e.getMessage());
+                    });
                 }
-            }
+            });
         }
 
-        private void addFrontier(Cell cell, ArrayList<Cell> frontier) {
-            int[][] dirs = {{0, 2}, {0, -2}, {2, 0}, {-2, 0}};
-            for (int[] d : dirs) {
-                int nr = cell.r + d[0];
-                int nc = cell.c + d[1];
-                if (isValid(nr, nc) && grid[nr][nc].type == 0) {
-                    grid[nr][nc].type = 1; grid[nr][nc].type = 0;
-                    if (!frontier.contains(grid[nr][nc])) frontier.add(grid[nr][nc]);
-                }
-            }
+        public String getAssetReport() {
+            return assets.getReport();
         }
 
-        private List<Cell> getPathNeighbors(Cell cell) {
-            List<Cell> n = new ArrayList<>();
-            int[][] dirs = {{0, 2}, {0, -2}, {2, 0}, {-2, 0}};
-            for (int[] d : dirs) {
-                int nr = cell.r + d[0];
-                int nc = cell.c + d[1];
-                if (isValid(nr, nc) && grid[nr][nc].type != 0) n.add(grid[nr][nc]);
-            }
-            return n;
+        public void setUseJunctions(boolean useJunctions) {
+            this.useJunctions = useJunctions;
         }
 
-        private List<Cell> getDirectNeighbors(Cell c) {
-            List<Cell> list = new ArrayList<>();
-            int[][] dirs = {{0, 1}, {0, -1}, {1, 0}, {-1, 0}};
-            for (int[] d : dirs) {
-                int nr = c.r + d[0];
-                int nc = c.c + d[1];
-                if (isValid(nr, nc)) list.add(grid[nr][nc]);
-            }
-            return list;
+        public void solveBFS() {
+            if (useJunctions) solveJunctions(JunctionGraph.BFS, PATH_BFS);
+            else runSolver(Solver.BFS, PATH_BFS);
         }
 
-        private void connect(Cell a, Cell b) {
-            a.type = 1;
-            int midR = (a.r + b.r) / 2;
-            int midC = (a.c + b.c) / 2;
-            grid[midR][midC].type = 1;
+        public void solveDFS() {
+            runSolver(Solver.DFS, PATH_DFS);
         }
 
-        private boolean isValid(int r, int c) {
-            return r >= 0 && r < ROWS && c >= 0 && c < COLS;
+        public void solveDijkstra() {
+            if (useJunctions) solveJunctions(JunctionGraph.DIJKSTRA, PATH_DIJKSTRA);
+            else runSolver(Solver.DIJKSTRA, PATH_DIJKSTRA);
         }
 
-        public void solveBFS() {
-            currentPathColor = PATH_BFS;
-            prepareSearch();
-            Queue<Cell> queue = new LinkedList<>();
-            Map<Cell, Cell> parentMap = new HashMap<>();
-
-            queue.add(startCell);
-            startCell.visited = true;
-            boolean found = false;
-
-            while (!queue.isEmpty()) {
-                Cell current = queue.poll();
-                searchHistory.add(current);
-                if (current == endCell) { found = true; break; }
-                for (Cell neighbor : getDirectNeighbors(current)) {
-                    if (!neighbor.visited && neighbor.type != 0) {
-                        neighbor.visited = true;
-                        parentMap.put(neighbor, current);
-                        queue.add(neighbor);
-                    }
-                }
-            }
-            finishSearch(found, parentMap);
+        public void solveAStar() {
+            if (useJunctions) solveJunctions(JunctionGraph.ASTAR, PATH_ASTAR);
+            else runSolver(Solver.ASTAR, PATH_ASTAR);
         }
 
-        public void solveDFS() {
-            currentPathColor = PATH_DFS;
-            prepareSearch();
-            Stack<Cell> stack = new Stack<>();
-            Map<Cell, Cell> parentMap = new HashMap<>();
-
-            stack.push(startCell);
-            startCell.visited = true;
-            boolean found = false;
-
-            while (!stack.isEmpty()) {
-                Cell current = stack.pop();
-                searchHistory.add(current);
-                if (current == endCell) { found = true; break; }
-                for (Cell neighbor : getDirectNeighbors(current)) {
-                    if (!neighbor.visited && neighbor.type != 0) {
-                        neighbor.visited = true;
-                        parentMap.put(neighbor, current);
-                        stack.push(neighbor);
+        public void solveDial() {
+            runSolver(Solver.DIAL, PATH_DIAL);
+        }
+
+        public void solveJPS() {
+            runSolver(Solver.JPS, PATH_JPS);
+        }
+
+        public void solveBitBFS() {
+            runSolver(Solver.BIT_BFS, PATH_BITBFS);
+        }
+
+        public void solveParallelBFS() {
+            runSolver(Solver.PARALLEL_BFS, PATH_PARBFS);
+        }
+
+        public void solveDeltaStepping() {
+            runSolver(Solver.DELTA_STEPPING, PATH_DELTA);
+        }
+
+        public void raceSolvers() {
+            stopAnimation();
+            MazeGrid snapshot = grid.snapshot();
+            showBusy("Balapan...");
+            // cancel(true) interrupts SolverRace.run, which interrupts every racer through its pool
+            raceWorker = new SwingWorker<List<SolverRace.Entry>, Void>() {
+                @Override
+                protected List<SolverRace.Entry> doInBackground() throws Exception {
+                    return SolverRace.run(snapshot, Solver.values());
+                }
+
+                @Override
+                protected void done() {
+                    if (raceWorker != this) return;
+                    raceWorker = null;
+                    finishBusy("Balapan selesai");
+                    try {
+                        appendRaceResults(get());
+                    } catch (Exception e) {
+                        JOptionPane.showMessageDialog(MazePanel.this, "Balapan gagal: " + e.getMessage());
                     }
                 }
-            }
-            finishSearch(found, parentMap);
+            };
+            raceWorker.execute();
         }
 
-        public void solveDijkstra() {
-            currentPathColor = PATH_DIJKSTRA;
-            prepareSearch();
-            PriorityQueue<Node> pq = new PriorityQueue<>(Comparator.comparingInt(n -> n.cost));
-            Map<Cell, Integer> dist = new HashMap<>();
-            Map<Cell, Cell> parentMap = new HashMap<>();
-
-            for (int r = 0; r < ROWS; r++) for (int c = 0; c < COLS; c++) dist.put(grid[r][c], Integer.MAX_VALUE);
-            dist.put(startCell, 0);
-            pq.add(new Node(startCell, 0));
-            boolean found = false;
-
-            while (!pq.isEmpty()) {
-                Node current = pq.poll();
-                Cell currCell = current.cell;
-                if (currCell.visited) continue;
-                currCell.visited = true;
-                searchHistory.add(currCell);
-                if (currCell == endCell) { found = true; break; }
-                for (Cell neighbor : getDirectNeighbors(currCell)) {
-                    if (!neighbor.visited && neighbor.type != 0) {
-                        int newDist = dist.get(currCell) + neighbor.type;
-                        if (newDist < dist.get(neighbor)) {
-                            dist.put(neighbor, newDist);
-                            parentMap.put(neighbor, currCell);
-                            pq.add(new Node(neighbor, newDist));
-                        }
-                    }
+        public void solveBidirectionalBFS() {
+            runSolver(Solver.BIDIRECTIONAL_BFS, PATH_BIBFS);
+        }
+
+        public void solveBidirectionalAStar() {
+            runSolver(Solver.BIDIRECTIONAL_ASTAR, PATH_BIASTAR);
+        }
+
+        private interface SearchCall {
+            boolean run(GridSearch search, MazeGrid grid, int s, int t) throws Exception;
+        }
+
+        private int beginBackgroundSolve(Color color) {
+            currentPathColor = color;
+            stopAnimation();
+
+            int id = ++solveId;
+            searchHistory = new int[GridSearch.CHUNK];
+            historyCount = 0;
+            searchDone = false;
+            updateProgress(0, openCells, true);
+            startAnimation();
+            return id;
+        }
+
+        private void runSolver(Solver solver, Color color) {
+            runSearch(solver::run, color);
+        }
+
+        private void runSearch(SearchCall call, Color color) {
+            int id = beginBackgroundSolve(color);
+            MazeGrid target = grid;
+            pendingSolve = solverExecutor.submit(() -> {
+                if (rejectUnreachable(id, target)) return;
+                search.clearCancel();
+                search.setRecordHistory(false);
+                search.setExpansionSink((cells, length) -> {
+                    int[] chunk = Arrays.copyOf(cells, length);
+                    SwingUtilities.invokeLater(() -> receiveChunk(id, chunk));
+                });
+                try {
+                    boolean found = call.run(search, target, target.start, target.end);
+                    search.flushExpansions();
+                    int[] path = search.path();
+                    int expanded = search.getExpanded();
+                    int peak = search.getPeakQueue();
+                    SwingUtilities.invokeLater(() -> completeSearch(id, found, path, expanded, peak));
+                } catch (CancellationException e) {
+                    // cancelSolve() already reset the panel; stale chunks are dropped by id
+                } catch (Exception e) {
+                    SwingUtilities.invokeLater(() -> {
+                        if (id != solveId) return;
+                        stopAnimation();
+                        updateProgress(0, openCells, false);
+                        JOptionPane.showMessageDialog(this, "Pencarian gagal: " + e.getMessage());
+                    });
+                } finally {
+                    search.setExpansionSink(null);
                 }
-            }
-            finishSearch(found, parentMap);
+            });
         }
 
-        public void solveAStar() {
-            currentPathColor = PATH_ASTAR;
-            prepareSearch();
-            PriorityQueue<Node> pq = new PriorityQueue<>(Comparator.comparingInt(n -> n.cost));
-            Map<Cell, Integer> gScore = new HashMap<>();
-            Map<Cell, Cell> parentMap = new HashMap<>();
-
-            for (int r = 0; r < ROWS; r++) for (int c = 0; c < COLS; c++) gScore.put(grid[r][c], Integer.MAX_VALUE);
-            gScore.put(startCell, 0);
-            pq.add(new Node(startCell, heuristic(startCell, endCell)));
-            boolean found = false;
-
-            while (!pq.isEmpty()) {
-                Node current = pq.poll();
-                Cell currCell = current.cell;
-                if (currCell.visited) continue;
-                currCell.visited = true;
-                searchHistory.add(currCell);
-                if (currCell == endCell) { found = true; break; }
-                for (Cell neighbor : getDirectNeighbors(currCell)) {
-                    if (!neighbor.visited && neighbor.type != 0) {
-                        int tentativeG = gScore.get(currCell) + neighbor.type;
-                        if (tentativeG < gScore.get(neighbor)) {
-                            gScore.put(neighbor, tentativeG);
-                            parentMap.put(neighbor, currCell);
-                            int fScore = tentativeG + heuristic(neighbor, endCell);
-                            pq.add(new Node(neighbor, fScore));
-                        }
-                    }
+        // Landmark tables cost a few full Dijkstras, so they are kept until the grid is replaced or edited.
+        public void solveALT() {
+            runSearch((search, target, s, t) -> {
+                if (landmarks == null || !landmarks.matches(target)) {
+                    landmarks = Landmarks.build(target);
+                    Landmarks built = landmarks;
+                    SwingUtilities.invokeLater(() -> appendLandmarkReport(built.count(), built.getBuildNanos(), built.tableBytes()));
                 }
-            }
-            finishSearch(found, parentMap);
+                return search.aStarLandmarks(target, s, t, landmarks);
+            }, PATH_ALT);
         }
 
-        private int heuristic(Cell a, Cell b) {
-            return Math.abs(a.r - b.r) + Math.abs(a.c - b.c);
+        // The cluster abstraction is rebuilt only when the grid or its edit version changes, so repeated
+        // queries on one map pay for the abstract search and refinement alone.
+        public void solveHPA() {
+            int id = beginBackgroundSolve(PATH_HPA);
+            MazeGrid target = grid;
+            pendingSolve = solverExecutor.submit(() -> {
+                if (rejectUnreachable(id, target)) return;
+                boolean rebuilt = hierarchy == null || !hierarchy.matches(target);
+                if (rebuilt) hierarchy = new ClusterGraph(target);
+                ClusterGraph h = hierarchy;
+
+                long t0 = System.nanoTime();
+                int[] path = h.findPath(target.start, target.end);
+                long queryNanos = System.nanoTime() - t0;
+                int[] visited = h.history();
+                int expanded = h.getExpanded();
+                int peak = h.getPeakQueue();
+                SwingUtilities.invokeLater(() -> {
+                    if (id != solveId) return;
+                    appendHierarchyReport(rebuilt ? h.getBuildNanos() : -1, queryNanos, h.getNodeCount(), h.getEdgeCount());
+                    receiveChunk(id, visited);
+                    completeSearch(id, path.length > 0, path, expanded, peak);
+                });
+            });
         }
 
-        private void prepareSearch() {
-            stopAnimation();
-            showWinPopup = false;
-            for(int r=0; r<ROWS; r++) for(int c=0; c<COLS; c++) grid[r][c].visited = false;
-            searchHistory = new ArrayList<>();
-            pathSolution = new ArrayList<>();
+        // Same flow as HPA*: the contracted graph is kept until the grid, an edit or the endpoints change.
+        private void solveJunctions(int mode, Color color) {
+            int id = beginBackgroundSolve(color);
+            MazeGrid target = grid;
+            pendingSolve = solverExecutor.submit(() -> {
+                if (rejectUnreachable(id, target)) return;
+                boolean rebuilt = junctions == null || !junctions.matches(target);
+                if (rebuilt) junctions = new JunctionGraph(target);
+                JunctionGraph j = junctions;
+
+                long t0 = System.nanoTime();
+                int[] path = j.findPath(mode);
+                long queryNanos = System.nanoTime() - t0;
+                int[] visited = j.history();
+                int expanded = j.getExpanded();
+                int peak = j.getPeakQueue();
+                SwingUtilities.invokeLater(() -> {
+                    if (id != solveId) return;
+                    appendJunctionReport(rebuilt ? j.getBuildNanos() : -1, queryNanos, j.getAliveCount(), j.getNodeCount(), j.getEdgeCount());
+                    receiveChunk(id, visited);
+                    completeSearch(id, path.length > 0, path, expanded, peak);
+                });
+            });
+        }
+
+        // Runs on the solver thread before any search: labels are refreshed once per generate or edit, after
+        // which start and treasure in different regions are turned away without expanding a single cell.
+        private boolean rejectUnreachable(int id, MazeGrid target) {
+            if (components == null || !components.matches(target)) components = new ComponentLabels(target);
+            if (components.connected(target.start, target.end)) return false;
+            int regions = components.count();
+            SwingUtilities.invokeLater(() -> {
+                if (id != solveId) return;
+                reportUnreachable(regions);
+                completeSearch(id, false, new int[0], 0, 0);
+            });
+            return true;
+        }
+
+        private void receiveChunk(int id, int[] chunk) {
+            if (id != solveId || searchHistory == null) return;
+            if (historyCount + chunk.length > searchHistory.length) {
+                searchHistory = Arrays.copyOf(searchHistory, Math.max(searchHistory.length * 2, historyCount + chunk.length));
+            }
+            System.arraycopy(chunk, 0, searchHistory, historyCount, chunk.length);
+            historyCount += chunk.length;
+            updateProgress(historyCount, openCells, true);
         }
 
-        private void finishSearch(boolean found, Map<Cell, Cell> parentMap) {
+        private void completeSearch(int id, boolean found, int[] path, int expanded, int peak) {
+            if (id != solveId) return;
+            pendingSolve = null;
+            searchDone = true;
+            expandedCount = expanded;
+            peakQueueSize = peak;
+            updateProgress(expanded, openCells, false);
             if (found) {
-                Cell curr = endCell;
-                while (curr != null) {
-                    pathSolution.add(0, curr);
-                    curr = parentMap.get(curr);
-                }
-                startAnimation();
+                pathSolution = path;
             } else {
+                stopAnimation();
                 JOptionPane.showMessageDialog(this, "Tidak ada rute ke Harta Karun!");
             }
         }
 
+        public void cancelSolve() {
+            stopAnimation();
+            updateProgress(historyCount, openCells, false);
+            progressBar.setString("Dibatalkan");
+        }
+
+        private void cancelPendingSolve() {
+            solveId++;
+            if (raceWorker != null) {
+                // cancel() runs done() right here on the EDT, which must already see the worker as stale
+                SwingWorker<?, ?> race = raceWorker;
+                raceWorker = null;
+                race.cancel(true);
+            }
+            if (pendingSolve == null) return;
+            // interrupting lets the cached builds (clusters, junctions, landmarks, labels) stop part way too
+            pendingSolve.cancel(true);
+            search.cancel();
+            pendingSolve = null;
+            if (planning) {
+                // the replan may never run, so the planner could miss the edited cells
+                plannerStale = true;
+                planning = false;
+            }
+        }
+
+        private int animStep(int length) {
+            return Math.max(1, length / MAX_ANIM_FRAMES);
+        }
+
         private void startAnimation() {
             animIndex = 0;
             showSolution = false;
+            overlayImage = null;
             playSound("grass step.wav", true);
 
             timer = new Timer(currentDelay, (ActionEvent e) -> {
                 if (searchHistory == null) { timer.stop(); stopSound(); return; }
 
                 if (!showSolution) {
-                    if (animIndex < searchHistory.size()) {
-                        animIndex++;
-                        repaint();
-                    } else {
+                    if (animIndex < historyCount) {
+                        animIndex = Math.min(historyCount, animIndex + animStep(searchDone ? historyCount : openCells));
+                        updateOverlay();
+                        repaintDirty();
+                    } else if (searchDone) {
                         showSolution = true;
                         animIndex = 0;
+                        updateOverlay();
                         stopSound();
                         playSound("knight step.wav", true);
                         repaint();
                     }
                 } else {
-                    if (pathSolution != null && animIndex < pathSolution.size() - 1) {
-                        animIndex++;
-                        repaint();
+                    if (pathSolution != null && animIndex < pathSolution.length - 1) {
+                        animIndex = Math.min(pathSolution.length - 1, animIndex + animStep(pathSolution.length));
+                        updateOverlay();
+                        repaintDirty();
                     } else {
                         timer.stop();
                         stopSound();
 
                         if (pathSolution != null) {
                             int totalCost = 0;
-                            for(Cell c : pathSolution) totalCost += c.type;
-                            appendResult(pathSolution.size(), totalCost);
+                            for (int cell : pathSolution) totalCost += grid.type(cell);
+                            appendResult(pathSolution.length, totalCost, expandedCount, peakQueueSize);
                         }
 
                         showWinPopup = true;
@@ -623,15 +1201,95 @@ public class MazeProjectFinal extends JFrame {
         }
 
         private void stopAnimation() {
+            cancelPendingSolve();
             if (timer != null) timer.stop();
             stopSound();
             searchHistory = null;
             pathSolution = null;
+            overlayImage = null;
+            pathLayer = null;
+            pathLayerPath = null;
             showSolution = false;
             showWinPopup = false;
             repaint();
         }
 
+        private void buildOverviewImage() {
+            overviewImage = new BufferedImage(grid.cols, grid.rows, BufferedImage.TYPE_INT_RGB);
+            int[] px = ((DataBufferInt) overviewImage.getRaster().getDataBuffer()).getData();
+            for (int i = 0; i < grid.size(); i++) px[i] = overviewRgb(grid.cells[i]);
+        }
+
+        private int overviewRgb(int type) {
+            switch (type) {
+                case MazeGrid.WALL: return OVERVIEW_FOREST.getRGB();
+                case MazeGrid.WATER: return FALLBACK_WATER.getRGB();
+                case MazeGrid.MUD: return FALLBACK_MUD.getRGB();
+                default: return FALLBACK_GRASS.getRGB();
+            }
+        }
+
+        // Writes only the cells revealed since the last tick into the per-cell overlay raster and grows the
+        // dirty box around them, so a frame costs O(new cells) instead of replaying the whole history.
+        private void updateOverlay() {
+            if (searchHistory == null) return;
+            if (overlayImage == null) {
+                overlayImage = new BufferedImage(grid.cols, grid.rows, BufferedImage.TYPE_INT_ARGB);
+                overlayFilled = 0;
+                overlayShowsPath = false;
+            }
+            int[] px = ((DataBufferInt) overlayImage.getRaster().getDataBuffer()).getData();
+            if (!showSolution) {
+                int argb = SEARCH_COLOR.getRGB();
+                int limit = Math.min(animIndex, historyCount);
+                for (; overlayFilled < limit; overlayFilled++) {
+                    int cell = searchHistory[overlayFilled];
+                    px[cell] = argb;
+                    markDirty(cell);
+                }
+            } else {
+                if (pathSolution == null) return;
+                if (!overlayShowsPath) {
+                    Arrays.fill(px, 0);
+                    overlayShowsPath = true;
+                    overlayFilled = 0;
+                }
+                int argb = currentPathColor.getRGB();
+                int limit = Math.min(animIndex + 1, pathSolution.length);
+                if (overlayFilled > 0) markDirty(pathSolution[overlayFilled - 1]);
+                for (; overlayFilled < limit; overlayFilled++) {
+                    int cell = pathSolution[overlayFilled];
+                    px[cell] = argb;
+                    markDirty(cell);
+                }
+            }
+        }
+
+        private void markDirty(int cell) {
+            int r = grid.row(cell), c = grid.col(cell);
+            if (r < dirtyMinRow) dirtyMinRow = r;
+            if (r > dirtyMaxRow) dirtyMaxRow = r;
+            if (c < dirtyMinCol) dirtyMinCol = c;
+            if (c > dirtyMaxCol) dirtyMaxCol = c;
+        }
+
+        private void repaintDirty() {
+            if (dirtyMinRow > dirtyMaxRow) return;
+            double scale = viewScale();
+            int startX = viewOriginX(scale);
+            int startY = viewOriginY(scale);
+
+            // one cell of margin covers the knight sprite, tree overhang and the overview markers
+            int x0 = startX + (int) Math.floor((dirtyMinCol - 1) * BASE_CELL_SIZE * scale) - 8;
+            int y0 = startY + (int) Math.floor((dirtyMinRow - 1) * BASE_CELL_SIZE * scale) - 8;
+            int x1 = startX + (int) Math.ceil((dirtyMaxCol + 2) * BASE_CELL_SIZE * scale) + 8;
+            int y1 = startY + (int) Math.ceil((dirtyMaxRow + 2) * BASE_CELL_SIZE * scale) + 8;
+            repaint(x0, y0, x1 - x0, y1 - y0);
+
+            dirtyMinRow = dirtyMinCol = Integer.MAX_VALUE;
+            dirtyMaxRow = dirtyMaxCol = -1;
+        }
+
         @Override
         protected void paintComponent(Graphics g) {
             super.paintComponent(g);
@@ -642,8 +1300,8 @@ public class MazeProjectFinal extends JFrame {
 
             int panelW = getWidth();
             int panelH = getHeight();
-            int mazeW = COLS * BASE_CELL_SIZE;
-            int mazeH = ROWS * BASE_CELL_SIZE;
+            int mazeW = grid.cols * BASE_CELL_SIZE;
+            int mazeH = grid.rows * BASE_CELL_SIZE;
 
             double scaleX = (double) panelW / mazeW;
             double scaleY = (double) panelH / mazeH;
@@ -655,20 +1313,188 @@ public class MazeProjectFinal extends JFrame {
             int startY = (panelH - drawH) / 2;
 
             g2.translate(startX, startY);
-            g2.scale(scale, scale);
 
-            int treeDrawW = (int)(BASE_CELL_SIZE * TREE_SCALE_WIDTH);
-            int treeDrawH = (int)(BASE_CELL_SIZE * TREE_SCALE_HEIGHT);
-            int treeOffsetX = (treeDrawW - BASE_CELL_SIZE) / 2;
-            int treeOffsetY = (treeDrawH - BASE_CELL_SIZE);
+            if (BASE_CELL_SIZE * scale < OVERVIEW_CELL_PX) {
+                g2.scale(scale, scale);
+                paintOverview(g2, scale);
+            } else {
+                double deviceScale = originalTransform.getScaleX();
+                ensureLayers(drawW, drawH, scale * deviceScale);
+                g2.drawImage(terrainLayer, 0, 0, drawW, drawH, null);
+
+                AffineTransform layerTransform = g2.getTransform();
+                g2.scale(scale, scale);
+                paintSearchOverlay(g2, scale * deviceScale);
+
+                g2.setTransform(layerTransform);
+                int padX = (int) Math.ceil(treeOffsetX() * scale), padY = (int) Math.ceil(treeOffsetY() * scale);
+                g2.drawImage(canopyLayer, -padX, -padY, drawW + 2 * padX, drawH + padY, null);
+            }
+
+            if (showWinPopup) {
+                g2.setTransform(originalTransform);
+
+                int w = getWidth();
+                int h = getHeight();
+
+                g2.setColor(new Color(0, 0, 0, 150));
+                g2.fillRect(0, 0, w, h);
+
+                int boxW = 400;
+                int boxH = 320;
+                int boxX = (w - boxW) / 2;
+                int boxY = (h - boxH) / 2;
+
+                g2.setColor(new Color(255, 250, 240));
+                g2.fillRoundRect(boxX, boxY, boxW, boxH, 25, 25);
+
+                g2.setColor(new Color(101, 67, 33));
+                g2.setStroke(new BasicStroke(5));
+                g2.drawRoundRect(boxX, boxY, boxW, boxH, 25, 25);
+
+                g2.setFont(new Font("SansSerif", Font.BOLD, 22));
+                String msg = "Anda menemukan harta karun!";
+                FontMetrics fm = g2.getFontMetrics();
+                int textW = fm.stringWidth(msg);
+                g2.setColor(new Color(80, 50, 20));
+                g2.drawString(msg, boxX + (boxW - textW) / 2, boxY + 50);
 
-            for (int r = 0; r < ROWS; r++) {
-                for (int c = 0; c < COLS; c++) {
+                if (imgKnightWin != null) {
+                    int imgW = imgKnightWin.getWidth(null);
+                    int imgX = boxX + (boxW - imgW) / 2;
+                    int imgY = boxY + 80;
+                    g2.drawImage(imgKnightWin, imgX, imgY, null);
+                } else {
+                    g2.setColor(Color.BLACK);
+                    g2.drawString("(Gambar 'knight win' tidak ditemukan)", boxX + 50, boxY + 150);
+                }
+            }
+        }
+
+        private void paintOverview(Graphics2D g2, double scale) {
+            if (overviewImage == null) buildOverviewImage();
+            int mazeW = grid.cols * BASE_CELL_SIZE;
+            int mazeH = grid.rows * BASE_CELL_SIZE;
+            g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+            g2.drawImage(overviewImage, 0, 0, mazeW, mazeH, null);
+
+            if (searchHistory != null) {
+                if (overlayImage == null) updateOverlay();
+                g2.drawImage(overlayImage, 0, 0, mazeW, mazeH, null);
+            }
+
+            double marker = Math.max(BASE_CELL_SIZE, 6 / scale);
+            g2.setColor(OVERVIEW_TREASURE);
+            g2.fill(new Rectangle2D.Double(grid.col(grid.end) * BASE_CELL_SIZE - (marker - BASE_CELL_SIZE) / 2,
+                    grid.row(grid.end) * BASE_CELL_SIZE - (marker - BASE_CELL_SIZE) / 2, marker, marker));
+
+            if (showSolution && pathSolution != null && animIndex < pathSolution.length) {
+                int curr = pathSolution[animIndex];
+                g2.setColor(Color.RED);
+                g2.fill(new Ellipse2D.Double(grid.col(curr) * BASE_CELL_SIZE - (marker - BASE_CELL_SIZE) / 2,
+                        grid.row(curr) * BASE_CELL_SIZE - (marker - BASE_CELL_SIZE) / 2, marker, marker));
+            }
+        }
+
+        private int treeOffsetX() {
+            return ((int)(BASE_CELL_SIZE * TREE_SCALE_WIDTH) - BASE_CELL_SIZE) / 2;
+        }
+
+        private int treeOffsetY() {
+            return (int)(BASE_CELL_SIZE * TREE_SCALE_HEIGHT) - BASE_CELL_SIZE;
+        }
+
+        private BufferedImage createLayer(int w, int h, int transparency) {
+            GraphicsConfiguration gc = getGraphicsConfiguration();
+            if (gc != null) return gc.createCompatibleImage(w, h, transparency);
+            return new BufferedImage(w, h, transparency == Transparency.OPAQUE ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+        }
+
+        // Terrain, walls, treasure and tree canopy are rebuilt only on generate or resize (edits patch them in place),
+        // so they are rendered once at screen resolution; each animation frame then blits two images and draws the
+        // search overlay between them.
+        private void ensureLayers(int drawW, int drawH, double pixelScale) {
+            int w = Math.max(1, (int) Math.ceil(grid.cols * BASE_CELL_SIZE * pixelScale));
+            int h = Math.max(1, (int) Math.ceil(grid.rows * BASE_CELL_SIZE * pixelScale));
+            if (terrainLayer != null && layersGrid == grid && terrainLayer.getWidth() == w && terrainLayer.getHeight() == h) return;
+            layersGrid = grid;
+            layerScale = pixelScale;
+
+            terrainLayer = createLayer(w, h, Transparency.OPAQUE);
+            Graphics2D g = terrainLayer.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.scale(pixelScale, pixelScale);
+            paintTerrain(g, 0, grid.rows, 0, grid.cols);
+            g.dispose();
+
+            int padX = (int) Math.ceil(treeOffsetX() * pixelScale), padY = (int) Math.ceil(treeOffsetY() * pixelScale);
+            canopyLayer = createLayer(w + 2 * padX, h + padY, Transparency.TRANSLUCENT);
+            g = canopyLayer.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.translate(padX, padY);
+            g.scale(pixelScale, pixelScale);
+            paintTrees(g, 0, grid.rows, 0, grid.cols);
+            g.dispose();
+        }
+
+        // An edit changes one tile plus the wall edges drawn on its eight neighbours, and only the trees that
+        // overlap the edited cell's own tree can change in the canopy, so just those blocks of the layers are redrawn.
+        private void repaintCell(int cell) {
+            int r = grid.row(cell), c = grid.col(cell);
+            if (terrainLayer != null && layersGrid == grid) {
+                int r0 = Math.max(0, r - 1), r1 = Math.min(grid.rows, r + 2);
+                int c0 = Math.max(0, c - 1), c1 = Math.min(grid.cols, c + 2);
+                Graphics2D g = patchLayer(terrainLayer, 0, 0, c0 * BASE_CELL_SIZE, r0 * BASE_CELL_SIZE,
+                        (c1 - c0) * BASE_CELL_SIZE, (r1 - r0) * BASE_CELL_SIZE);
+                g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                // the cleared pixels can reach into the next ring of tiles, so that ring is redrawn under the clip too
+                paintTerrain(g, Math.max(0, r0 - 1), Math.min(grid.rows, r1 + 1), Math.max(0, c0 - 1), Math.min(grid.cols, c1 + 1));
+                g.dispose();
+
+                int offX = treeOffsetX(), offY = treeOffsetY();
+                int spanR = (BASE_CELL_SIZE + offY) / BASE_CELL_SIZE + 1;
+                int spanC = (BASE_CELL_SIZE + 2 * offX) / BASE_CELL_SIZE + 1;
+                g = patchLayer(canopyLayer, (int) Math.ceil(offX * layerScale), (int) Math.ceil(offY * layerScale),
+                        c * BASE_CELL_SIZE - offX, r * BASE_CELL_SIZE - offY, BASE_CELL_SIZE + 2 * offX, BASE_CELL_SIZE + offY);
+                paintTrees(g, Math.max(0, r - spanR), Math.min(grid.rows, r + spanR + 1),
+                        Math.max(0, c - spanC), Math.min(grid.cols, c + spanC + 1));
+                g.dispose();
+            }
+            markDirty(cell);
+            repaintDirty();
+        }
+
+        // Clears the given maze-space rectangle of a cached layer on whole device pixels and returns a graphics
+        // clipped to exactly those pixels, set up like the one ensureLayers painted the layer with.
+        private Graphics2D patchLayer(BufferedImage layer, int padX, int padY, int x, int y, int w, int h) {
+            int x0 = padX + (int) Math.floor(x * layerScale), y0 = padY + (int) Math.floor(y * layerScale);
+            int x1 = padX + (int) Math.ceil((x + w) * layerScale), y1 = padY + (int) Math.ceil((y + h) * layerScale);
+            Graphics2D g = layer.createGraphics();
+            g.setBackground(LAYER_CLEAR);
+            g.clearRect(x0, y0, x1 - x0, y1 - y0);
+            g.clipRect(x0, y0, x1 - x0, y1 - y0);
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.translate(padX, padY);
+            g.scale(layerScale, layerScale);
+            return g;
+        }
+
+        private void invalidateLayers() {
+            terrainLayer = null;
+            canopyLayer = null;
+            layersGrid = null;
+        }
+
+        private void paintTerrain(Graphics2D g2, int r0, int r1, int c0, int c1) {
+            int rows = grid.rows, cols = grid.cols;
+            for (int r = r0; r < r1; r++) {
+                for (int c = c0; c < c1; c++) {
                     int x = c * BASE_CELL_SIZE;
                     int y = r * BASE_CELL_SIZE;
-                    Cell cell = grid[r][c];
+                    int cell = grid.cells[grid.index(r, c)];
 
-                    if (cell.type == 0) {
+                    if (cell == MazeGrid.WALL) {
                         if (imagesLoaded && imgGrassForest != null) {
                             g2.drawImage(imgGrassForest, x, y, null);
                         } else {
@@ -684,31 +1510,33 @@ public class MazeProjectFinal extends JFrame {
                         }
                     }
 
-                    if (cell.type == 5 && imagesLoaded && imgWater != null) g2.drawImage(imgWater, x, y, null);
-                    else if (cell.type == 10 && imagesLoaded && imgMud != null) g2.drawImage(imgMud, x, y, null);
+                    if (cell == MazeGrid.WATER && imagesLoaded && imgWater != null) g2.drawImage(imgWater, x, y, null);
+                    else if (cell == MazeGrid.MUD && imagesLoaded && imgMud != null) g2.drawImage(imgMud, x, y, null);
                 }
             }
 
             if (imagesLoaded && imgTreasure != null) {
-                g2.drawImage(imgTreasure, endCell.c * BASE_CELL_SIZE, endCell.r * BASE_CELL_SIZE, null);
+                g2.drawImage(imgTreasure, grid.col(grid.end) * BASE_CELL_SIZE, grid.row(grid.end) * BASE_CELL_SIZE, null);
             }
 
             g2.setColor(WALL_COLOR_FALLBACK);
-            for (int r = 0; r < ROWS; r++) {
-                for (int c = 0; c < COLS; c++) {
+            for (int r = r0; r < r1; r++) {
+                for (int c = c0; c < c1; c++) {
                     int x = c * BASE_CELL_SIZE;
                     int y = r * BASE_CELL_SIZE;
 
-                    if (grid[r][c].type != 0) {
-                        boolean topIsWall = (r > 0 && grid[r-1][c].type == 0);
-                        boolean bottomIsWall = (r < ROWS-1 && grid[r+1][c].type == 0);
-                        boolean leftIsWall = (c > 0 && grid[r][c-1].type == 0);
-                        boolean rightIsWall = (c < COLS-1 && grid[r][c+1].type == 0);
+                    int i = grid.index(r, c);
+
+                    if (grid.isOpen(i)) {
+                        boolean topIsWall = (r > 0 && !grid.isOpen(i - cols));
+                        boolean bottomIsWall = (r < rows-1 && !grid.isOpen(i + cols));
+                        boolean leftIsWall = (c > 0 && !grid.isOpen(i - 1));
+                        boolean rightIsWall = (c < cols-1 && !grid.isOpen(i + 1));
 
-                        boolean topLeftIsWall = (r > 0 && c > 0 && grid[r-1][c-1].type == 0);
-                        boolean topRightIsWall = (r > 0 && c < COLS-1 && grid[r-1][c+1].type == 0);
-                        boolean bottomLeftIsWall = (r < ROWS-1 && c > 0 && grid[r+1][c-1].type == 0);
-                        boolean bottomRightIsWall = (r < ROWS-1 && c < COLS-1 && grid[r+1][c+1].type == 0);
+                        boolean topLeftIsWall = (r > 0 && c > 0 && !grid.isOpen(i - cols - 1));
+                        boolean topRightIsWall = (r > 0 && c < cols-1 && !grid.isOpen(i - cols + 1));
+                        boolean bottomLeftIsWall = (r < rows-1 && c > 0 && !grid.isOpen(i + cols - 1));
+                        boolean bottomRightIsWall = (r < rows-1 && c < cols-1 && !grid.isOpen(i + cols + 1));
 
                         if (topIsWall) {
                             if(imgWallH != null) g2.drawImage(imgWallH, x, y, null);
@@ -741,98 +1569,87 @@ public class MazeProjectFinal extends JFrame {
                     }
                 }
             }
+        }
+
+        private void paintSearchOverlay(Graphics2D g2, double pixelScale) {
+            int mazeW = grid.cols * BASE_CELL_SIZE;
+            int mazeH = grid.rows * BASE_CELL_SIZE;
 
             if (searchHistory != null && !showSolution) {
-                g2.setColor(SEARCH_COLOR);
-                int limit = Math.min(animIndex, searchHistory.size());
-                for (int i = 0; i < limit; i++) {
-                    Cell c = searchHistory.get(i);
-                    g2.fillRect(c.c * BASE_CELL_SIZE, c.r * BASE_CELL_SIZE, BASE_CELL_SIZE, BASE_CELL_SIZE);
-                }
+                if (overlayImage == null) updateOverlay();
+                g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+                g2.drawImage(overlayImage, 0, 0, mazeW, mazeH, null);
             }
 
             if (showSolution && pathSolution != null) {
-                g2.setColor(currentPathColor);
-                g2.setStroke(new BasicStroke(3));
-                for (int i = 0; i < animIndex; i++) {
-                    if (i + 1 >= pathSolution.size()) break;
-
-                    Cell c1 = pathSolution.get(i);
-                    Cell c2 = pathSolution.get(i+1);
-                    g2.drawLine(c1.c * BASE_CELL_SIZE + BASE_CELL_SIZE/2, c1.r * BASE_CELL_SIZE + BASE_CELL_SIZE/2,
-                            c2.c * BASE_CELL_SIZE + BASE_CELL_SIZE/2, c2.r * BASE_CELL_SIZE + BASE_CELL_SIZE/2);
-                }
+                updatePathLayer(pixelScale);
+                g2.drawImage(pathLayer, 0, 0, mazeW, mazeH, null);
 
-                if (imagesLoaded && !pathSolution.isEmpty() && animIndex < pathSolution.size()) {
-                    Cell curr = pathSolution.get(animIndex);
-                    if (curr != endCell) {
+                if (imagesLoaded && pathSolution.length > 0 && animIndex < pathSolution.length) {
+                    int curr = pathSolution[animIndex];
+                    if (curr != grid.end) {
+                        int currR = grid.row(curr), currC = grid.col(curr);
                         Image kImg = imgKnightDown;
-                        if (animIndex < pathSolution.size() - 1) {
-                            Cell next = pathSolution.get(animIndex + 1);
-                            if (next.c > curr.c) kImg = imgKnightRight;
-                            else if (next.c < curr.c) kImg = imgKnightLeft;
-                            else if (next.r < curr.r) kImg = imgKnightUp;
-                            else if (next.r > curr.r) kImg = imgKnightDown;
+                        if (animIndex < pathSolution.length - 1) {
+                            int next = pathSolution[animIndex + 1];
+                            int nextR = grid.row(next), nextC = grid.col(next);
+                            if (nextC > currC) kImg = imgKnightRight;
+                            else if (nextC < currC) kImg = imgKnightLeft;
+                            else if (nextR < currR) kImg = imgKnightUp;
+                            else if (nextR > currR) kImg = imgKnightDown;
                         }
                         int offsetX = (BASE_CELL_SIZE - HERO_SIZE) / 2;
                         int offsetY = (BASE_CELL_SIZE - HERO_SIZE) - 5;
                         g2.setColor(new Color(0,0,0, 80));
-                        g2.fillOval(curr.c * BASE_CELL_SIZE + 5, curr.r * BASE_CELL_SIZE + BASE_CELL_SIZE - 10, BASE_CELL_SIZE - 10, 8);
-                        g2.drawImage(kImg, curr.c * BASE_CELL_SIZE + offsetX, curr.r * BASE_CELL_SIZE + offsetY, null);
+                        g2.fillOval(currC * BASE_CELL_SIZE + 5, currR * BASE_CELL_SIZE + BASE_CELL_SIZE - 10, BASE_CELL_SIZE - 10, 8);
+                        g2.drawImage(kImg, currC * BASE_CELL_SIZE + offsetX, currR * BASE_CELL_SIZE + offsetY, null);
                     }
                 }
             }
+        }
 
-            for (int r = 0; r < ROWS; r++) {
-                for (int c = 0; c < COLS; c++) {
+        // The path polyline only ever grows, so new segments are drawn into a screen-resolution layer
+        // and earlier ones are never redrawn; the layer restarts when the path or the painted size changes.
+        private void updatePathLayer(double pixelScale) {
+            int w = Math.max(1, (int) Math.ceil(grid.cols * BASE_CELL_SIZE * pixelScale));
+            int h = Math.max(1, (int) Math.ceil(grid.rows * BASE_CELL_SIZE * pixelScale));
+            if (pathLayer == null || pathLayerPath != pathSolution || pathLayer.getWidth() != w || pathLayer.getHeight() != h) {
+                pathLayer = createLayer(w, h, Transparency.TRANSLUCENT);
+                pathLayerPath = pathSolution;
+                pathLayerDrawn = 0;
+            }
+            int limit = Math.min(animIndex, pathSolution.length - 1);
+            if (pathLayerDrawn >= limit) return;
+
+            Graphics2D g = pathLayer.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g.scale(pixelScale, pixelScale);
+            g.setColor(currentPathColor);
+            g.setStroke(new BasicStroke(3));
+            for (; pathLayerDrawn < limit; pathLayerDrawn++) {
+                int c1 = pathSolution[pathLayerDrawn];
+                int c2 = pathSolution[pathLayerDrawn + 1];
+                g.drawLine(grid.col(c1) * BASE_CELL_SIZE + BASE_CELL_SIZE/2, grid.row(c1) * BASE_CELL_SIZE + BASE_CELL_SIZE/2,
+                        grid.col(c2) * BASE_CELL_SIZE + BASE_CELL_SIZE/2, grid.row(c2) * BASE_CELL_SIZE + BASE_CELL_SIZE/2);
+            }
+            g.dispose();
+        }
+
+        private void paintTrees(Graphics2D g2, int r0, int r1, int c0, int c1) {
+            int treeOffsetX = treeOffsetX(), treeOffsetY = treeOffsetY();
+            for (int r = r0; r < r1; r++) {
+                for (int c = c0; c < c1; c++) {
                     int x = c * BASE_CELL_SIZE;
                     int y = r * BASE_CELL_SIZE;
-                    if (grid[r][c].type == 0) {
-                        if (imagesLoaded && imgTrees[grid[r][c].treeVariant] != null) {
-                            g2.drawImage(imgTrees[grid[r][c].treeVariant], x - treeOffsetX, y - treeOffsetY, null);
+                    int i = grid.index(r, c);
+                    if (!grid.isOpen(i)) {
+                        Image tree = imgTrees[grid.treeVariant(i)];
+                        if (imagesLoaded && tree != null) {
+                            g2.drawImage(tree, x - treeOffsetX, y - treeOffsetY, null);
                         }
                     }
                 }
             }
-
-            if (showWinPopup) {
-                g2.setTransform(originalTransform);
-
-                int w = getWidth();
-                int h = getHeight();
-
-                g2.setColor(new Color(0, 0, 0, 150));
-                g2.fillRect(0, 0, w, h);
-
-                int boxW = 400;
-                int boxH = 320;
-                int boxX = (w - boxW) / 2;
-                int boxY = (h - boxH) / 2;
-
-                g2.setColor(new Color(255, 250, 240));
-                g2.fillRoundRect(boxX, boxY, boxW, boxH, 25, 25);
-
-                g2.setColor(new Color(101, 67, 33));
-                g2.setStroke(new BasicStroke(5));
-                g2.drawRoundRect(boxX, boxY, boxW, boxH, 25, 25);
-
-                g2.setFont(new Font("SansSerif", Font.BOLD, 22));
-                String msg = "Anda menemukan harta karun!";
-                FontMetrics fm = g2.getFontMetrics();
-                int textW = fm.stringWidth(msg);
-                g2.setColor(new Color(80, 50, 20));
-                g2.drawString(msg, boxX + (boxW - textW) / 2, boxY + 50);
-
-                if (imgKnightWin != null) {
-                    int imgW = imgKnightWin.getWidth(null);
-                    int imgX = boxX + (boxW - imgW) / 2;
-                    int imgY = boxY + 80;
-                    g2.drawImage(imgKnightWin, imgX, imgY, null);
-                } else {
-                    g2.setColor(Color.BLACK);
-                    g2.drawString("(Gambar 'knight win' tidak ditemukan)", boxX + 50, boxY + 150);
-                }
-            }
         }
     }
 }
\ No newline at end of file
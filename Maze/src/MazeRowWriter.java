@@ -0,0 +1,34 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+
+// Streams rows straight into the MazeFile layout, so Eller output can be mapped back with MazeFile.map.
+public class MazeRowWriter implements EllerGenerator.RowSink, Closeable {
+    private final OutputStream out;
+    private int packed;
+    private int packedCells;
+
+    public MazeRowWriter(File file, int rows, int cols, int generator, int decoration, long seed) throws IOException {
+        out = new BufferedOutputStream(new FileOutputStream(file), 1 << 16);
+        ByteBuffer header = ByteBuffer.allocate(MazeFile.HEADER_BYTES);
+        MazeFile.writeHeader(header, rows, cols, 1, 1, rows - 2, cols - 2, generator, decoration, seed);
+        out.write(header.array());
+    }
+
+    @Override
+    public void acceptRow(int r, byte[] row) throws IOException {
+        for (byte cell : row) {
+            packed |= MazeFile.code(cell) << (packedCells << 1);
+            if (++packedCells == 4) {
+                out.write(packed);
+                packed = 0;
+                packedCells = 0;
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (packedCells > 0) out.write(packed);
+        out.close();
+    }
+}
@@ -0,0 +1,197 @@
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Level-synchronous BFS: each frontier is split across a ForkJoinPool, and a cell belongs to whichever worker
+// first sets its bit in the shared visited bitmap by compare-and-set, so parent[] needs no further locking.
+// Only levels wider than GRAIN fork. A perfect maze keeps its frontier at a handful of cells, so it runs
+// almost entirely on the calling thread; the speedup shows on open or braided grids (main's knockout argument).
+public class ParallelBfs implements ParallelSearch {
+    static final int GRAIN = 1024;
+
+    private final ForkJoinPool pool;
+    private final boolean ownsPool;
+    private volatile boolean cancelled;
+
+    private MazeGrid grid;
+    private AtomicLongArray visited = new AtomicLongArray(0);
+    private int[] parent = new int[0];
+    private int[] frontier = new int[0];
+    private int[] next = new int[0];
+    private final AtomicInteger nextSize = new AtomicInteger();
+    private final ThreadLocal<int[]> scratch = ThreadLocal.withInitial(() -> new int[4 * GRAIN]);
+
+    private boolean found;
+    private int target;
+    private long expanded;
+    private int levels;
+    private int parallelLevels;
+
+    public ParallelBfs(int threads) {
+        this.pool = new ForkJoinPool(Math.max(1, threads));
+        this.ownsPool = true;
+    }
+
+    // Runs on a pool the caller keeps, such as the common pool behind Solver.PARALLEL_BFS.
+    public ParallelBfs(ForkJoinPool pool) {
+        this.pool = pool;
+        this.ownsPool = false;
+    }
+
+    @Override
+    public void cancel() { cancelled = true; }
+
+    @Override
+    public void clearCancel() { cancelled = false; }
+
+    @Override
+    public long getExpanded() { return expanded; }
+    public int getLevels() { return levels; }
+    public int getParallelLevels() { return parallelLevels; }
+
+    @Override
+    public boolean search(MazeGrid g, int s, int t) {
+        prepare(g);
+        target = t;
+        found = s == t;
+        expanded = 0;
+        levels = 0;
+        parallelLevels = 0;
+
+        claim(s);
+        parent[s] = -1;
+        frontier[0] = s;
+        int size = 1;
+        while (size > 0 && !found) {
+            if (cancelled || Thread.currentThread().isInterrupted()) throw new CancellationException();
+            levels++;
+            expanded += size;
+            nextSize.set(0);
+            // a maze corridor frontier is a handful of cells; forking for it costs more than it saves
+            if (size <= GRAIN) {
+                expandRange(frontier, 0, size);
+            } else {
+                parallelLevels++;
+                pool.invoke(new Level(frontier, 0, size));
+            }
+            int[] swap = frontier;
+            frontier = next;
+            next = swap;
+            size = nextSize.get();
+        }
+        return found;
+    }
+
+    @Override
+    public int[] path() {
+        if (!found) return new int[0];
+        int length = 0;
+        for (int cur = target; cur != -1; cur = parent[cur]) length++;
+        int[] path = new int[length];
+        for (int cur = target, k = length - 1; cur != -1; cur = parent[cur], k--) path[k] = cur;
+        return path;
+    }
+
+    private class Level extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final int[] cells;
+        private final int lo, hi;
+
+        Level(int[] cells, int lo, int hi) {
+            this.cells = cells;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo <= GRAIN) {
+                expandRange(cells, lo, hi);
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new Level(cells, lo, mid), new Level(cells, mid, hi));
+        }
+    }
+
+    // New cells are gathered in a per-thread buffer and published with one getAndAdd per range.
+    private void expandRange(int[] cells, int lo, int hi) {
+        int[] local = scratch.get();
+        int n = 0;
+        int cols = grid.cols, rows = grid.rows;
+        byte[] open = grid.cells;
+        for (int k = lo; k < hi; k++) {
+            int u = cells[k];
+            int r = u / cols, c = u - r * cols;
+            if (c + 1 < cols && open[u + 1] != MazeGrid.WALL && claim(u + 1)) { parent[u + 1] = u; local[n++] = u + 1; }
+            if (c > 0 && open[u - 1] != MazeGrid.WALL && claim(u - 1)) { parent[u - 1] = u; local[n++] = u - 1; }
+            if (r + 1 < rows && open[u + cols] != MazeGrid.WALL && claim(u + cols)) { parent[u + cols] = u; local[n++] = u + cols; }
+            if (r > 0 && open[u - cols] != MazeGrid.WALL && claim(u - cols)) { parent[u - cols] = u; local[n++] = u - cols; }
+        }
+        if (n == 0) return;
+        int at = nextSize.getAndAdd(n);
+        System.arraycopy(local, 0, next, at, n);
+        for (int k = 0; k < n; k++) {
+            if (local[k] == target) found = true;
+        }
+    }
+
+    private boolean claim(int cell) {
+        int w = cell >>> 6;
+        long bit = 1L << cell;
+        while (true) {
+            long old = visited.get(w);
+            if ((old & bit) != 0) return false;
+            if (visited.compareAndSet(w, old, old | bit)) return true;
+        }
+    }
+
+    private void prepare(MazeGrid g) {
+        grid = g;
+        int n = g.size();
+        int words = (n + 63) >>> 6;
+        if (parent.length < n) {
+            parent = new int[n];
+            frontier = new int[n];
+            next = new int[n];
+        }
+        if (visited.length() < words) {
+            visited = new AtomicLongArray(words);
+        } else {
+            for (int w = 0; w < words; w++) visited.set(w, 0L);
+        }
+    }
+
+    @Override
+    public String summary() {
+        return String.format("jarak %,d | %d/%d level paralel", path().length, parallelLevels, levels);
+    }
+
+    @Override
+    public void close() {
+        if (ownsPool) pool.shutdown();
+    }
+
+    public static void main(String[] args) throws Exception {
+        MazeGrid grid = SpeedupHarness.grid(args);
+        int repeats = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        // perfect mazes keep a frontier of a few cells; knocking out walls widens it enough to split
+        int knockout = args.length > 2 ? Integer.parseInt(args[2]) : 0;
+        if (knockout > 0) {
+            Random rand = new Random(2);
+            for (int i = 0; i < grid.size(); i++) {
+                int r = grid.row(i), c = grid.col(i);
+                if (r > 0 && c > 0 && r < grid.rows - 1 && c < grid.cols - 1 && !grid.isOpen(i) && rand.nextInt(100) < knockout) {
+                    grid.cells[i] = MazeGrid.GRASS;
+                }
+            }
+        }
+        System.out.printf("Maze %d x %d, %d inti tersedia%n", grid.rows, grid.cols, Runtime.getRuntime().availableProcessors());
+
+        long base = SpeedupHarness.baseline("BFS antrian", Solver.BFS, grid, repeats, s -> String.format("jarak %,d", s.pathLength()));
+        SpeedupHarness.scale("Paralel", grid, repeats, base, ParallelBfs::new);
+    }
+}
@@ -0,0 +1,20 @@
+// The parallel searches behind Solver.PARALLEL_BFS and Solver.DELTA_STEPPING and the SpeedupHarness CLIs.
+public interface ParallelSearch extends AutoCloseable {
+    boolean search(MazeGrid grid, int s, int t);
+
+    int[] path();
+
+    long getExpanded();
+
+    // Safe to call from any thread; the running search throws CancellationException at its next level or phase.
+    void cancel();
+
+    void clearCancel();
+
+    // Solver-specific counters for the last search, one line of the speedup table.
+    String summary();
+
+    // Shuts the pool down only if the search created it.
+    @Override
+    void close();
+}
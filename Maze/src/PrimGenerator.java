@@ -0,0 +1,42 @@
+import java.util.BitSet;
+import java.util.Random;
+
+public class PrimGenerator implements MazeGenerator {
+
+    @Override
+    public String getName() { return "Prim"; }
+
+    @Override
+    public void carve(MazeGrid grid, Random rand) {
+        int[] frontier = new int[MazeBuilder.roomCount(grid)];
+        int size = 0;
+        BitSet inFrontier = new BitSet(grid.size());
+        int[] neighbors = new int[4];
+
+        grid.cells[grid.start] = MazeGrid.GRASS;
+        size = addFrontier(grid, grid.start, frontier, size, inFrontier, neighbors);
+
+        while (size > 0) {
+            int pick = rand.nextInt(size);
+            int current = frontier[pick];
+            frontier[pick] = frontier[--size];
+
+            int n = MazeBuilder.roomNeighbors(grid, current, neighbors, true);
+            if (n > 0) {
+                MazeBuilder.connect(grid, current, neighbors[rand.nextInt(n)]);
+            }
+            size = addFrontier(grid, current, frontier, size, inFrontier, neighbors);
+        }
+    }
+
+    private int addFrontier(MazeGrid grid, int cell, int[] frontier, int size, BitSet inFrontier, int[] neighbors) {
+        int n = MazeBuilder.roomNeighbors(grid, cell, neighbors, false);
+        for (int k = 0; k < n; k++) {
+            if (!inFrontier.get(neighbors[k])) {
+                inFrontier.set(neighbors[k]);
+                frontier[size++] = neighbors[k];
+            }
+        }
+        return size;
+    }
+}
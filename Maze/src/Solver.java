@@ -0,0 +1,35 @@
+public enum Solver {
+    BFS("BFS"),
+    DFS("DFS"),
+    DIJKSTRA("Dijkstra"),
+    ASTAR("A*"),
+    BIDIRECTIONAL_BFS("Bi-BFS"),
+    BIDIRECTIONAL_ASTAR("Bi-A*"),
+    DIAL("Dial"),
+    JPS("JPS"),
+    BIT_BFS("Bit-BFS"),
+    PARALLEL_BFS("BFS Paralel"),
+    DELTA_STEPPING("Delta-Stepping");
+
+    final String label;
+
+    Solver(String label) {
+        this.label = label;
+    }
+
+    public boolean run(GridSearch search, MazeGrid grid, int s, int t) {
+        switch (this) {
+            case BFS: return search.bfs(grid, s, t);
+            case DFS: return search.dfs(grid, s, t);
+            case DIJKSTRA: return search.dijkstra(grid, s, t);
+            case ASTAR: return search.aStar(grid, s, t);
+            case BIDIRECTIONAL_BFS: return search.bidirectionalBfs(grid, s, t);
+            case BIDIRECTIONAL_ASTAR: return search.bidirectionalAStar(grid, s, t);
+            case DIAL: return search.dial(grid, s, t);
+            case JPS: return search.jumpPointSearch(grid, s, t);
+            case BIT_BFS: return search.bitParallelBfs(grid, s, t);
+            case PARALLEL_BFS: return search.parallelBfs(grid, s, t);
+            default: return search.deltaStepping(grid, s, t);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+public class SolverRace {
+
+    static class Entry {
+        final Solver solver;
+        final boolean found;
+        final long nanos;
+        final int expanded;
+        final int length;
+        final int cost;
+
+        Entry(Solver solver, boolean found, long nanos, int expanded, int length, int cost) {
+            this.solver = solver;
+            this.found = found;
+            this.nanos = nanos;
+            this.expanded = expanded;
+            this.length = length;
+            this.cost = cost;
+        }
+
+        @Override
+        public String toString() {
+            if (!found) return String.format("%-14s %8.1f ms | %,d sel | tidak ada rute", solver.label, nanos / 1e6, expanded);
+            return String.format("%-14s %8.1f ms | %,d sel | jarak %,d | energi %,d", solver.label, nanos / 1e6, expanded, length, cost);
+        }
+    }
+
+    public static List<Entry> run(MazeGrid snapshot, Solver[] solvers) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(solvers.length);
+        try {
+            List<Callable<Entry>> tasks = new ArrayList<>();
+            for (Solver solver : solvers) {
+                tasks.add(() -> {
+                    GridSearch search = new GridSearch();
+                    search.setRecordHistory(false);
+                    long t0 = System.nanoTime();
+                    boolean found = solver.run(search, snapshot, snapshot.start, snapshot.end);
+                    long nanos = System.nanoTime() - t0;
+                    return new Entry(solver, found, nanos, search.getExpanded(), search.pathLength(), search.pathCost());
+                });
+            }
+            List<Entry> entries = new ArrayList<>();
+            for (Future<Entry> future : pool.invokeAll(tasks)) {
+                try {
+                    entries.add(future.get());
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException(e.getCause());
+                }
+            }
+            return entries;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
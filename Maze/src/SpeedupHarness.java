@@ -0,0 +1,53 @@
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+// Shared driver for the ParallelBfs and DeltaStepping CLIs: load a maze file or build a Prim maze of the given
+// size, time a sequential baseline, then time the parallel search at 1, 2, 4 and 8 threads against it.
+public class SpeedupHarness {
+    static final int[] THREADS = {1, 2, 4, 8};
+
+    static MazeGrid grid(String[] args) throws IOException {
+        if (args.length > 0 && new File(args[0]).isFile()) {
+            MazeFile file = MazeFile.map(new File(args[0]));
+            if (!file.fitsInMemory()) {
+                throw new IllegalArgumentException("Maze " + file.rows + " x " + file.cols
+                        + " terlalu besar untuk pencarian paralel; BatchSolver bisa mencarinya langsung di file");
+            }
+            return file.toGrid();
+        }
+        int size = args.length > 0 ? Integer.parseInt(args[0]) | 1 : 4097;
+        return MazeBuilder.build(size, size, MazeBuilder.GENERATORS[0], new Random(1));
+    }
+
+    // Best of repeats for the sequential solver, printed as the first row of the table.
+    static long baseline(String name, Solver solver, MazeGrid grid, int repeats, Function<GridSearch, String> summary) {
+        GridSearch search = new GridSearch();
+        search.setRecordHistory(false);
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < repeats; i++) {
+            long t0 = System.nanoTime();
+            solver.run(search, grid, grid.start, grid.end);
+            best = Math.min(best, System.nanoTime() - t0);
+        }
+        System.out.printf("%-12s : %8.1f ms | %,d sel | %s%n", name, best / 1e6, search.getExpanded(), summary.apply(search));
+        return best;
+    }
+
+    static void scale(String name, MazeGrid grid, int repeats, long base, IntFunction<ParallelSearch> open) {
+        for (int threads : THREADS) {
+            try (ParallelSearch search = open.apply(threads)) {
+                long best = Long.MAX_VALUE;
+                for (int i = 0; i < repeats; i++) {
+                    long t0 = System.nanoTime();
+                    search.search(grid, grid.start, grid.end);
+                    best = Math.min(best, System.nanoTime() - t0);
+                }
+                System.out.printf("%-9s x%d : %8.1f ms | %,d sel | %s | percepatan %.2fx%n",
+                        name, threads, best / 1e6, search.getExpanded(), search.summary(), (double) base / best);
+            }
+        }
+    }
+}
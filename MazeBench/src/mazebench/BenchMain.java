@@ -0,0 +1,18 @@
+package mazebench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+// Runs every maze benchmark (or those matching the first argument) with the GC profiler attached, so each
+// score comes with gc.alloc.rate and gc.alloc.rate.norm. Run it from the IDE with this module's classpath.
+public class BenchMain {
+    public static void main(String[] args) throws Exception {
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .include(args.length > 0 ? args[0] : "mazebench\\..*Benchmark")
+                .addProfiler(GCProfiler.class);
+        if (args.length > 1) options.result(args[1]);
+        new Runner(options.build()).run();
+    }
+}
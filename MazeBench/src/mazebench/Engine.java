@@ -0,0 +1,87 @@
+package mazebench;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Random;
+
+// The maze engine lives in the default package, which Java code in a named package cannot import, and JMH
+// refuses benchmarks in the default package. These handles bridge the two; they are static final, so the JIT
+// inlines them and the benchmarks measure the engine rather than the bridge.
+final class Engine {
+    private static final MethodHandle BUILD;
+    private static final MethodHandle NEW_SEARCH;
+    private static final MethodHandle RECORD_HISTORY;
+    private static final MethodHandle RUN;
+    private static final MethodHandle EXPANDED;
+    private static final MethodHandle START;
+    private static final MethodHandle END;
+    private static final Class<?> SOLVER;
+
+    static {
+        try {
+            Class<?> grid = Class.forName("MazeGrid");
+            Class<?> generator = Class.forName("MazeGenerator");
+            Class<?> search = Class.forName("GridSearch");
+            SOLVER = Class.forName("Solver");
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            // start and end are package-private; the classpath's unnamed module is open, so a private lookup works
+            MethodHandles.Lookup fields = MethodHandles.privateLookupIn(grid, MethodHandles.lookup());
+
+            BUILD = lookup.findStatic(Class.forName("MazeBuilder"), "build",
+                            MethodType.methodType(grid, int.class, int.class, generator, Random.class))
+                    .asType(MethodType.methodType(Object.class, int.class, int.class, Object.class, Random.class));
+            NEW_SEARCH = lookup.findConstructor(search, MethodType.methodType(void.class))
+                    .asType(MethodType.methodType(Object.class));
+            RECORD_HISTORY = lookup.findVirtual(search, "setRecordHistory", MethodType.methodType(void.class, boolean.class))
+                    .asType(MethodType.methodType(void.class, Object.class, boolean.class));
+            RUN = lookup.findVirtual(SOLVER, "run", MethodType.methodType(boolean.class, search, grid, int.class, int.class))
+                    .asType(MethodType.methodType(boolean.class, Object.class, Object.class, Object.class, int.class, int.class));
+            EXPANDED = lookup.findVirtual(search, "getExpanded", MethodType.methodType(int.class))
+                    .asType(MethodType.methodType(int.class, Object.class));
+            START = fields.findGetter(grid, "start", int.class).asType(MethodType.methodType(int.class, Object.class));
+            END = fields.findGetter(grid, "end", int.class).asType(MethodType.methodType(int.class, Object.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private Engine() {
+    }
+
+    // name is the class prefix: Prim, Kruskal, Backtracker or Eller
+    static Object generator(String name) throws ReflectiveOperationException {
+        return Class.forName(name + "Generator").getConstructor().newInstance();
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static Object solver(String name) {
+        return Enum.valueOf((Class) SOLVER, name);
+    }
+
+    static Object build(int rows, int cols, Object generator, Random rand) throws Throwable {
+        return (Object) BUILD.invokeExact(rows, cols, generator, rand);
+    }
+
+    static Object newSearch(boolean recordHistory) throws Throwable {
+        Object search = (Object) NEW_SEARCH.invokeExact();
+        RECORD_HISTORY.invokeExact(search, recordHistory);
+        return search;
+    }
+
+    static boolean run(Object solver, Object search, Object grid, int s, int t) throws Throwable {
+        return (boolean) RUN.invokeExact(solver, search, grid, s, t);
+    }
+
+    static int expanded(Object search) throws Throwable {
+        return (int) EXPANDED.invokeExact(search);
+    }
+
+    static int start(Object grid) throws Throwable {
+        return (int) START.invokeExact(grid);
+    }
+
+    static int end(Object grid) throws Throwable {
+        return (int) END.invokeExact(grid);
+    }
+}
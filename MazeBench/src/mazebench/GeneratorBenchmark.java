@@ -0,0 +1,46 @@
+package mazebench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Carving plus loops and terrain weights, i.e. everything "Generate Map" does before painting.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GeneratorBenchmark {
+    @Param({"101", "501", "2001"})
+    int size;
+
+    @Param({"Prim", "Kruskal", "Backtracker", "Eller"})
+    String generator;
+
+    private Object algorithm;
+    private long seed;
+
+    @Setup(Level.Trial)
+    public void setUp() throws ReflectiveOperationException {
+        algorithm = Engine.generator(generator);
+    }
+
+    // a new seed per call, so the benchmark does not time the same maze over and over
+    @Benchmark
+    public Object generate() throws Throwable {
+        return Engine.build(size, size, algorithm, new Random(seed++));
+    }
+}
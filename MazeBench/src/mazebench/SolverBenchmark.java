@@ -0,0 +1,77 @@
+package mazebench;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// One start-to-treasure search per operation on a fixed seeded maze; the search object is reused between
+// operations the same way the panel reuses its own.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SolverBenchmark {
+    @Param({"101", "501", "2001"})
+    int size;
+
+    @Param({"BFS", "DFS", "DIJKSTRA", "ASTAR", "BIDIRECTIONAL_BFS", "BIDIRECTIONAL_ASTAR", "DIAL", "JPS", "BIT_BFS", "PARALLEL_BFS", "DELTA_STEPPING"})
+    String solver;
+
+    @Param("Prim")
+    String generator;
+
+    // the panel records every expansion for the animation; -p history=true measures that cost too
+    @Param("false")
+    boolean history;
+
+    @Param("1")
+    long seed;
+
+    private Object grid;
+    private Object algorithm;
+    private Object search;
+    private int start, end;
+
+    // JMH reports OPERATIONS counters as a rate next to the score, which gives expansions per second
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Expansions {
+        public long expansions;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            expansions = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws Throwable {
+        grid = Engine.build(size, size, Engine.generator(generator), new Random(seed));
+        algorithm = Engine.solver(solver);
+        search = Engine.newSearch(history);
+        start = Engine.start(grid);
+        end = Engine.end(grid);
+    }
+
+    @Benchmark
+    public boolean solve(Expansions counter) throws Throwable {
+        boolean found = Engine.run(algorithm, search, grid, start, end);
+        counter.expansions += Engine.expanded(search);
+        return found;
+    }
+}